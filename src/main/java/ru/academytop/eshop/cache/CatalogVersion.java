@@ -0,0 +1,35 @@
+package ru.academytop.eshop.cache;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версия каталога товаров.
+ * <p>
+ * Версия входит в ключи кэшей, построенных по данным каталога (см. {@link FragmentCache}), и увеличивается
+ * после фиксации любого изменения товара, категории или изображения (см. {@link CatalogVersionListener}).
+ * Записи со старой версией больше не запрашиваются и вытесняются по размеру кэша, поэтому фрагмент,
+ * отрисованный по данным до изменения, не может попасть в выдачу после него.
+ * </p>
+ */
+@Component
+public class CatalogVersion {
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Возвращает текущую версию каталога.
+     *
+     * @return номер версии.
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Увеличивает версию каталога.
+     */
+    public void increment() {
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,56 @@
+package ru.academytop.eshop.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.academytop.eshop.entity.Category;
+import ru.academytop.eshop.entity.Image;
+import ru.academytop.eshop.entity.Product;
+
+/**
+ * Слушатель изменений сущностей {@link Product}, {@link Category} и {@link Image}, увеличивающий {@link CatalogVersion}.
+ * <p>
+ * Версия увеличивается после фиксации транзакции: если увеличить ее раньше, параллельный запрос успел бы
+ * отрисовать и закэшировать фрагмент с новой версией по еще не зафиксированным данным. Вне транзакции
+ * версия увеличивается сразу.
+ * </p>
+ */
+@Component
+public class CatalogVersionListener {
+    private final CatalogVersion catalogVersion;
+
+    /**
+     * Конструктор слушателя.
+     *
+     * @param catalogVersion версия каталога товаров.
+     */
+    @Autowired
+    public CatalogVersionListener(CatalogVersion catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
+    /**
+     * Планирует увеличение версии каталога после создания, изменения или удаления товара, категории или изображения.
+     *
+     * @param entity измененная сущность.
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            catalogVersion.increment();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                catalogVersion.increment();
+            }
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package ru.academytop.eshop.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Кэш отрисованных HTML-фрагментов страниц каталога.
+ * <p>
+ * Хранит HTML карточек товаров и панели страниц, который одинаков для всех пользователей при одних и тех же
+ * параметрах запроса. Ключ записи составляется из ключа фрагмента (шаблон и параметры) и текущей
+ * {@link CatalogVersion}, поэтому изменение каталога делает все прежние записи недостижимыми.
+ * Вес записи равен длине HTML в символах, общий вес ограничен свойством {@code eshop.cache.fragments.max-weight}.
+ * Статистика публикуется в Micrometer под именем {@code fragments}.
+ * </p>
+ */
+@Component
+public class FragmentCache {
+    private final CatalogVersion catalogVersion;
+    private final Cache<String, String> cache;
+
+    /**
+     * Конструктор кэша фрагментов.
+     *
+     * @param catalogVersion версия каталога товаров.
+     * @param maxWeight      максимальная суммарная длина фрагментов в символах.
+     * @param meterRegistry  реестр метрик для публикации статистики кэша.
+     */
+    @Autowired
+    public FragmentCache(CatalogVersion catalogVersion,
+                         @Value("${eshop.cache.fragments.max-weight:16000000}") long maxWeight,
+                         MeterRegistry meterRegistry) {
+        this.catalogVersion = catalogVersion;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((String key, String html) -> key.length() + html.length())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "fragments");
+    }
+
+    /**
+     * Возвращает HTML фрагмента из кэша, отрисовывая его при отсутствии.
+     * <p>
+     * Версия каталога читается до отрисовки: если каталог изменится во время отрисовки, фрагмент
+     * сохранится под старой версией и не будет выдан после изменения.
+     * </p>
+     *
+     * @param key      ключ фрагмента, включающий все параметры, от которых зависит его HTML.
+     * @param renderer функция отрисовки фрагмента.
+     * @return HTML фрагмента.
+     */
+    public String get(String key, Supplier<String> renderer) {
+        return cache.get(catalogVersion.current() + ":" + key, versionedKey -> renderer.get());
+    }
+}
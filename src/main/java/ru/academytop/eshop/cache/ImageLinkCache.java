@@ -0,0 +1,76 @@
+package ru.academytop.eshop.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.academytop.eshop.dto.ImageDto;
+import ru.academytop.eshop.repository.ImageRepository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Кэш ссылок на изображения товаров по идентификатору товара.
+ * <p>
+ * Страницы со списками товаров запрашивают ссылки сразу для всей страницы: отсутствующие в кэше ссылки
+ * загружаются одним запросом {@code WHERE image_id IN (...)}, поэтому количество запросов не зависит
+ * от размера страницы, а повторные просмотры не обращаются к базе данных. Запись удаляется после
+ * изменения изображения (см. {@link ImageLinkCacheListener}). Статистика публикуется в Micrometer
+ * под именем {@code imageLinks}.
+ * </p>
+ */
+@Component
+public class ImageLinkCache {
+    private final ImageRepository imageRepository;
+    private final Cache<Integer, String> cache;
+
+    /**
+     * Конструктор кэша ссылок на изображения.
+     *
+     * @param imageRepository репозиторий изображений.
+     * @param maxSize         максимальное количество ссылок в кэше.
+     * @param meterRegistry   реестр метрик для публикации статистики кэша.
+     */
+    @Autowired
+    public ImageLinkCache(ImageRepository imageRepository,
+                          @Value("${eshop.cache.image-links.max-size:100000}") long maxSize,
+                          MeterRegistry meterRegistry) {
+        this.imageRepository = imageRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "imageLinks");
+    }
+
+    /**
+     * Возвращает ссылки на изображения товаров, загружая отсутствующие в кэше одним запросом.
+     *
+     * @param productIds идентификаторы товаров.
+     * @return карта идентификатор товара - ссылка; товары без изображения в карту не попадают.
+     */
+    public Map<Integer, String> getLinks(Collection<Integer> productIds) {
+        return cache.getAll(productIds, this::load);
+    }
+
+    /**
+     * Удаляет ссылку на изображение товара из кэша.
+     *
+     * @param productId идентификатор товара.
+     */
+    public void evict(Integer productId) {
+        cache.invalidate(productId);
+    }
+
+    private Map<Integer, String> load(Set<? extends Integer> productIds) {
+        return imageRepository.findLinksByProductIdIn(productIds).stream()
+                .collect(Collectors.toMap(ImageDto::getProductId, ImageDto::getLink));
+    }
+}
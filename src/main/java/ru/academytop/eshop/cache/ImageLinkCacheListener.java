@@ -0,0 +1,52 @@
+package ru.academytop.eshop.cache;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.academytop.eshop.entity.Image;
+
+/**
+ * Слушатель изменений сущности {@link Image}, удаляющий ссылку из {@link ImageLinkCache}.
+ * <p>
+ * Запись удаляется после фиксации транзакции, чтобы параллельный запрос не загрузил в кэш
+ * еще не зафиксированную ссылку. Вне транзакции запись удаляется сразу.
+ * </p>
+ */
+@Component
+public class ImageLinkCacheListener {
+    private final ImageLinkCache imageLinkCache;
+
+    /**
+     * Конструктор слушателя.
+     *
+     * @param imageLinkCache кэш ссылок на изображения товаров.
+     */
+    @Autowired
+    public ImageLinkCacheListener(ImageLinkCache imageLinkCache) {
+        this.imageLinkCache = imageLinkCache;
+    }
+
+    /**
+     * Планирует удаление ссылки из кэша после изменения или удаления изображения.
+     *
+     * @param image измененное изображение.
+     */
+    @PostUpdate
+    @PostRemove
+    public void onChange(Image image) {
+        Integer productId = image.getProductId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            imageLinkCache.evict(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                imageLinkCache.evict(productId);
+            }
+        });
+    }
+}
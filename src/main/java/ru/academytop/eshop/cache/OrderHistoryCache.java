@@ -0,0 +1,87 @@
+package ru.academytop.eshop.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.academytop.eshop.dto.OrderSummaryDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Кэш истории заказов пользователей, ограниченный количеством заказов.
+ * <p>
+ * Хранит для каждого пользователя список {@link OrderSummaryDto}, чтобы повторные просмотры страницы
+ * истории заказов не обращались к базе данных. Строки истории неизменяемы, не ссылаются на сущности
+ * JPA и имеют одинаковый размер, поэтому ограничение суммарного количества заказов свойством
+ * {@code eshop.cache.order-history.max-orders} ограничивает и занимаемую память. Вытеснение
+ * выполняется политикой Caffeine (W-TinyLFU), статистика попаданий публикуется в Micrometer
+ * под именем {@code orderHistory}.
+ * </p>
+ */
+@Component
+public class OrderHistoryCache {
+    private final Cache<Integer, List<OrderSummaryDto>> cache;
+
+    /**
+     * Конструктор кэша истории заказов.
+     *
+     * @param maxOrders     максимальное суммарное количество заказов в кэше.
+     * @param meterRegistry реестр метрик для публикации статистики кэша.
+     */
+    @Autowired
+    public OrderHistoryCache(@Value("${eshop.cache.order-history.max-orders:100000}") long maxOrders,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxOrders)
+                // Пустая история тоже занимает место, поэтому считается как один заказ
+                .weigher((Integer userId, List<OrderSummaryDto> orders) -> orders.size() + 1)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orderHistory");
+    }
+
+    /**
+     * Возвращает историю заказов пользователя из кэша, загружая ее при отсутствии.
+     *
+     * @param userId идентификатор пользователя.
+     * @param loader функция загрузки заказов из базы данных.
+     * @return неизменяемый список заказов пользователя.
+     */
+    public List<OrderSummaryDto> get(Integer userId, Function<Integer, List<OrderSummaryDto>> loader) {
+        return cache.get(userId, id -> List.copyOf(loader.apply(id)));
+    }
+
+    /**
+     * Добавляет сохраненный заказ в историю пользователя (write-through).
+     * <p>
+     * Если история пользователя еще не загружена, кэш не изменяется: при следующем чтении
+     * она будет загружена из базы данных вместе с новым заказом.
+     * </p>
+     *
+     * @param userId идентификатор пользователя.
+     * @param order  сохраненный заказ.
+     */
+    public void append(Integer userId, OrderSummaryDto order) {
+        cache.asMap().computeIfPresent(userId, (id, orders) -> {
+            List<OrderSummaryDto> updated = new ArrayList<>(orders.size() + 1);
+            updated.addAll(orders);
+            updated.add(order);
+            return List.copyOf(updated);
+        });
+    }
+
+    /**
+     * Удаляет историю заказов пользователя из кэша.
+     *
+     * @param userId идентификатор пользователя.
+     */
+    public void evict(Integer userId) {
+        cache.invalidate(userId);
+    }
+}
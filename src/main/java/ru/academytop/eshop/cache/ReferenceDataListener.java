@@ -0,0 +1,54 @@
+package ru.academytop.eshop.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.academytop.eshop.entity.Category;
+import ru.academytop.eshop.entity.Role;
+
+/**
+ * Слушатель изменений сущностей {@link Role} и {@link Category}, перезагружающий {@link ReferenceDataRegistry}.
+ * <p>
+ * Перезагрузка выполняется после фиксации транзакции, чтобы реестр не прочитал незафиксированные
+ * или откатанные данные. Вне транзакции реестр перезагружается сразу.
+ * </p>
+ */
+@Component
+public class ReferenceDataListener {
+    private final ReferenceDataRegistry referenceDataRegistry;
+
+    /**
+     * Конструктор слушателя.
+     *
+     * @param referenceDataRegistry реестр справочных данных.
+     */
+    @Autowired
+    public ReferenceDataListener(ReferenceDataRegistry referenceDataRegistry) {
+        this.referenceDataRegistry = referenceDataRegistry;
+    }
+
+    /**
+     * Планирует перезагрузку реестра после создания, изменения или удаления роли либо категории.
+     *
+     * @param entity измененная сущность.
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            referenceDataRegistry.refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                referenceDataRegistry.refresh();
+            }
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package ru.academytop.eshop.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.academytop.eshop.dto.CategoryDto;
+import ru.academytop.eshop.dto.RoleDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Реестр справочных данных: ролей и категорий.
+ * <p>
+ * Таблицы {@code roles} и {@code categories} содержат десятки строк, поэтому загружаются целиком при старте
+ * в неизменяемые карты по идентификатору и по названию. Чтение не обращается к базе данных и не требует
+ * блокировок: обновление заменяет снимок целиком. Снимок перезагружается после фиксации транзакции,
+ * изменившей роль или категорию (см. {@link ReferenceDataListener}).
+ * </p>
+ */
+@Slf4j
+@Component
+public class ReferenceDataRegistry {
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Snapshot snapshot = new Snapshot(List.of(), List.of());
+
+    /**
+     * Конструктор реестра справочных данных.
+     *
+     * @param jdbcTemplate шаблон для выполнения запросов.
+     */
+    @Autowired
+    public ReferenceDataRegistry(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Загружает роли и категории из базы данных и атомарно заменяет текущий снимок.
+     */
+    @PostConstruct
+    public void refresh() {
+        List<RoleDto> roles = jdbcTemplate.query("SELECT role_id, name FROM roles ORDER BY role_id",
+                (rs, rowNum) -> new RoleDto(rs.getInt("role_id"), rs.getString("name")));
+        List<CategoryDto> categories = jdbcTemplate.query(
+                "SELECT category_id, name, rating FROM categories ORDER BY category_id",
+                (rs, rowNum) -> new CategoryDto(rs.getInt("category_id"), rs.getString("name"),
+                        (Integer) rs.getObject("rating")));
+        snapshot = new Snapshot(roles, categories);
+        log.debug("Reference data loaded: {} roles, {} categories", roles.size(), categories.size());
+    }
+
+    /**
+     * Находит роль по названию.
+     *
+     * @param name название роли, например {@code ROLE_USER}.
+     * @return роль или пустой Optional, если роль не найдена.
+     */
+    public Optional<RoleDto> findRoleByName(String name) {
+        return Optional.ofNullable(snapshot.rolesByName.get(name));
+    }
+
+    /**
+     * Находит роль по идентификатору.
+     *
+     * @param id идентификатор роли.
+     * @return роль или пустой Optional, если роль не найдена.
+     */
+    public Optional<RoleDto> findRoleById(Integer id) {
+        return Optional.ofNullable(snapshot.rolesById.get(id));
+    }
+
+    /**
+     * Возвращает все категории, упорядоченные по идентификатору.
+     *
+     * @return неизменяемый список категорий.
+     */
+    public List<CategoryDto> findAllCategories() {
+        return snapshot.categories;
+    }
+
+    /**
+     * Находит категорию по идентификатору.
+     *
+     * @param id идентификатор категории.
+     * @return категория или пустой Optional, если категория не найдена.
+     */
+    public Optional<CategoryDto> findCategoryById(Integer id) {
+        return Optional.ofNullable(snapshot.categoriesById.get(id));
+    }
+
+    /**
+     * Находит категорию по названию.
+     *
+     * @param name название категории.
+     * @return категория или пустой Optional, если категория не найдена.
+     */
+    public Optional<CategoryDto> findCategoryByName(String name) {
+        return Optional.ofNullable(snapshot.categoriesByName.get(name));
+    }
+
+    /**
+     * Неизменяемый снимок справочных данных.
+     */
+    private static final class Snapshot {
+        private final Map<Integer, RoleDto> rolesById;
+        private final Map<String, RoleDto> rolesByName;
+        private final List<CategoryDto> categories;
+        private final Map<Integer, CategoryDto> categoriesById;
+        private final Map<String, CategoryDto> categoriesByName;
+
+        Snapshot(List<RoleDto> roles, List<CategoryDto> categories) {
+            this.rolesById = index(roles, RoleDto::getId);
+            this.rolesByName = index(roles, RoleDto::getName);
+            this.categories = List.copyOf(categories);
+            this.categoriesById = index(categories, CategoryDto::getCategoryId);
+            this.categoriesByName = index(categories, CategoryDto::getName);
+        }
+
+        private static <K, V> Map<K, V> index(List<V> values, Function<V, K> key) {
+            return Map.copyOf(values.stream().collect(Collectors.toMap(key, Function.identity())));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.academytop.eshop.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.academytop.eshop.entity.model.CustomUserDetail;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Кэш данных пользователей для аутентификации.
+ * <p>
+ * Повторные входы и автоматические входы по remember-me в течение {@code eshop.cache.user-details.ttl-seconds}
+ * секунд не обращаются к базе данных. Размер кэша ограничен свойством {@code eshop.cache.user-details.max-size}.
+ * При изменении пользователя или роли записи удаляются через {@link UserDetailsCacheListener}.
+ * Статистика публикуется в Micrometer под именем {@code userDetails}.
+ * </p>
+ */
+@Component
+public class UserDetailsCache {
+    private final Cache<String, CustomUserDetail> cache;
+
+    /**
+     * Конструктор кэша данных пользователей.
+     *
+     * @param ttlSeconds    время жизни записи в секундах.
+     * @param maxSize       максимальное количество записей.
+     * @param meterRegistry реестр метрик для публикации статистики кэша.
+     */
+    @Autowired
+    public UserDetailsCache(@Value("${eshop.cache.user-details.ttl-seconds:60}") long ttlSeconds,
+                            @Value("${eshop.cache.user-details.max-size:10000}") long maxSize,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userDetails");
+    }
+
+    /**
+     * Возвращает данные пользователя из кэша, загружая их при отсутствии.
+     *
+     * @param name   имя пользователя (логин).
+     * @param loader функция загрузки данных из базы данных.
+     * @return данные пользователя для аутентификации.
+     */
+    public CustomUserDetail get(String name, Function<String, CustomUserDetail> loader) {
+        return cache.get(name, loader);
+    }
+
+    /**
+     * Удаляет данные пользователя из кэша.
+     *
+     * @param name имя пользователя (логин).
+     */
+    public void evict(String name) {
+        cache.invalidate(name);
+    }
+
+    /**
+     * Удаляет из кэша данные всех пользователей.
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
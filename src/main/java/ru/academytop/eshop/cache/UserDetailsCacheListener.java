@@ -0,0 +1,45 @@
+package ru.academytop.eshop.cache;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.academytop.eshop.entity.Role;
+import ru.academytop.eshop.entity.User;
+
+/**
+ * Слушатель изменений сущностей {@link User} и {@link Role}, сбрасывающий {@link UserDetailsCache}.
+ * <p>
+ * Изменение пароля или роли пользователя удаляет его запись из кэша; изменение самой роли затрагивает
+ * всех ее пользователей, поэтому кэш очищается целиком.
+ * </p>
+ */
+@Component
+public class UserDetailsCacheListener {
+    private final UserDetailsCache userDetailsCache;
+
+    /**
+     * Конструктор слушателя.
+     *
+     * @param userDetailsCache кэш данных пользователей для аутентификации.
+     */
+    @Autowired
+    public UserDetailsCacheListener(UserDetailsCache userDetailsCache) {
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    /**
+     * Сбрасывает кэш после изменения или удаления пользователя либо роли.
+     *
+     * @param entity измененная сущность {@link User} или {@link Role}.
+     */
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof User user) {
+            userDetailsCache.evict(user.getName());
+        } else if (entity instanceof Role) {
+            userDetailsCache.evictAll();
+        }
+    }
+}
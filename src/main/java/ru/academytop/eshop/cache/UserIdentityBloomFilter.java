@@ -0,0 +1,238 @@
+package ru.academytop.eshop.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума по именам и адресам электронной почты зарегистрированных пользователей.
+ * <p>
+ * Отрицательный ответ {@link #mightContainName(String)} или {@link #mightContainEmail(String)} означает, что такого
+ * значения в таблице {@code users} точно нет, и запрос к базе данных можно не выполнять. Положительный ответ
+ * требует проверки запросом. Биты только устанавливаются (без блокировок, через CAS), поэтому фильтр не дает
+ * ложноотрицательных ответов для значений, добавленных этим экземпляром приложения. Пока фильтр
+ * заполняется при старте, все ответы положительные. Уникальные ограничения в базе данных остаются
+ * окончательной проверкой. Если заполнить фильтр не удалось (например, база данных недоступна при старте),
+ * ответы остаются положительными, а заполнение повторяется по расписанию до первого успеха.
+ * </p>
+ * <p>
+ * Метрики: {@code eshop.bloom.users.fpp} - оценка вероятности ложноположительного ответа по заполненности
+ * битового массива, {@code eshop.bloom.users.checks} - количество проверок с тегом {@code result}
+ * (negative, positive, false_positive).
+ * </p>
+ */
+@Slf4j
+@Component
+public class UserIdentityBloomFilter {
+    private static final String NAME_PREFIX = "n:";
+    private static final String EMAIL_PREFIX = "e:";
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong bitsSet = new AtomicLong();
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+    private volatile boolean ready;
+
+    /**
+     * Конструктор фильтра.
+     *
+     * @param jdbcTemplate       шаблон для чтения существующих пользователей.
+     * @param expectedInsertions ожидаемое количество пользователей. У каждого пользователя в фильтр добавляются
+     *                           имя и адрес, поэтому битовый массив рассчитывается на вдвое больше значений.
+     * @param fpp                целевая вероятность ложноположительного ответа.
+     * @param meterRegistry      реестр метрик.
+     */
+    @Autowired
+    public UserIdentityBloomFilter(JdbcTemplate jdbcTemplate,
+                                   @Value("${eshop.bloom.users.expected-insertions:2000000}") long expectedInsertions,
+                                   @Value("${eshop.bloom.users.fpp:0.01}") double fpp,
+                                   MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        long expectedValues = 2 * expectedInsertions;
+        long optimalBits = (long) Math.ceil(-expectedValues * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bitCount = Math.max(64, (optimalBits + 63) / 64 * 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedValues * Math.log(2)));
+        this.bits = new AtomicLongArray((int) (bitCount / 64));
+        Gauge.builder("eshop.bloom.users.fpp", this, UserIdentityBloomFilter::estimatedFalsePositiveRate)
+                .description("Estimated false positive probability of the user name/email Bloom filter")
+                .register(meterRegistry);
+        this.negatives = Counter.builder("eshop.bloom.users.checks").tag("result", "negative").register(meterRegistry);
+        this.positives = Counter.builder("eshop.bloom.users.checks").tag("result", "positive").register(meterRegistry);
+        this.falsePositives = Counter.builder("eshop.bloom.users.checks").tag("result", "false_positive")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Заполняет фильтр именами и адресами всех пользователей после старта приложения.
+     * Ошибка чтения не останавливает приложение: фильтр остается незаполненным.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT name, email FROM users");
+                statement.setFetchSize(10_000);
+                return statement;
+            }, rs -> {
+                putName(rs.getString("name"));
+                putEmail(rs.getString("email"));
+            });
+        } catch (DataAccessException ex) {
+            log.warn("User Bloom filter was not built, registration checks will query the database", ex);
+            return;
+        }
+        ready = true;
+        log.info("User Bloom filter built: {} bits, {} hashes, estimated fpp {}",
+                bitCount, hashCount, estimatedFalsePositiveRate());
+    }
+
+    /**
+     * Повторяет заполнение фильтра, пока оно не удалось.
+     */
+    @Scheduled(initialDelayString = "${eshop.bloom.users.retry-interval-ms:60000}",
+            fixedDelayString = "${eshop.bloom.users.retry-interval-ms:60000}")
+    public void retryRebuild() {
+        if (!ready) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Проверяет, может ли имя пользователя уже существовать.
+     *
+     * @param name имя пользователя.
+     * @return false, если имени точно нет в таблице users; true, если нужна проверка запросом.
+     */
+    public boolean mightContainName(String name) {
+        return mightContain(NAME_PREFIX, name);
+    }
+
+    /**
+     * Проверяет, может ли адрес электронной почты уже существовать.
+     *
+     * @param email адрес электронной почты.
+     * @return false, если адреса точно нет в таблице users; true, если нужна проверка запросом.
+     */
+    public boolean mightContainEmail(String email) {
+        return mightContain(EMAIL_PREFIX, email);
+    }
+
+    /**
+     * Добавляет имя пользователя в фильтр.
+     *
+     * @param name имя пользователя.
+     */
+    public void putName(String name) {
+        put(NAME_PREFIX, name);
+    }
+
+    /**
+     * Добавляет адрес электронной почты в фильтр.
+     *
+     * @param email адрес электронной почты.
+     */
+    public void putEmail(String email) {
+        put(EMAIL_PREFIX, email);
+    }
+
+    /**
+     * Учитывает в метриках положительный ответ фильтра, который не подтвердился запросом к базе данных.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Оценивает вероятность ложноположительного ответа по доле установленных битов.
+     *
+     * @return оценка вероятности от 0 до 1.
+     */
+    public double estimatedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.get() / bitCount, hashCount);
+    }
+
+    private boolean mightContain(String prefix, String value) {
+        if (!ready || value == null) {
+            return true;
+        }
+        long hash = hash(prefix, value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1, h2, i);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                negatives.increment();
+                return false;
+            }
+        }
+        positives.increment();
+        return true;
+    }
+
+    private void put(String prefix, String value) {
+        if (value == null) {
+            return;
+        }
+        long hash = hash(prefix, value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = index(h1, h2, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0) {
+                if (bits.compareAndSet(word, current, current | mask)) {
+                    bitsSet.incrementAndGet();
+                    break;
+                }
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * Вычисляет i-й индекс бита методом двойного хэширования (Kirsch-Mitzenmacher).
+     */
+    private long index(int h1, int h2, int i) {
+        int combined = h1 + i * h2;
+        if (combined < 0) {
+            combined = ~combined;
+        }
+        return combined % bitCount;
+    }
+
+    /**
+     * 64-битный хэш FNV-1a нормализованного (в нижнем регистре) значения с финальным перемешиванием.
+     */
+    private static long hash(String prefix, String value) {
+        byte[] bytes = (prefix + value.toLowerCase(Locale.ROOT)).getBytes(StandardCharsets.UTF_8);
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,35 @@
+package ru.academytop.eshop.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.academytop.eshop.cache.CatalogVersion;
+import ru.academytop.eshop.filters.PageCacheFilter;
+
+import java.time.Duration;
+import java.util.Set;
+// Аннотация @Configuration указывает, что этот класс является конфигурационным классом Spring
+@Configuration
+@ConditionalOnProperty(name = "eshop.page-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class PageCacheConfig {
+    // Регистрация кэша страниц для анонимных пользователей.
+    // Порядок меньше порядка цепочки Spring Security: попадание в кэш не доходит до безопасности и контроллеров.
+    @Bean
+    public FilterRegistrationBean<PageCacheFilter> pageCacheFilter(
+            @Value("${eshop.page-cache.paths:/,/home,/category}") Set<String> paths,
+            @Value("${eshop.page-cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${eshop.page-cache.stale-seconds:300}") long staleSeconds,
+            @Value("${eshop.page-cache.max-bytes:67108864}") long maxBytes,
+            CatalogVersion catalogVersion,
+            MeterRegistry meterRegistry) {
+        PageCacheFilter filter = new PageCacheFilter(paths, Duration.ofSeconds(ttlSeconds),
+                Duration.ofSeconds(staleSeconds), maxBytes, catalogVersion, meterRegistry);
+        FilterRegistrationBean<PageCacheFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 5);
+        return registration;
+    }
+}
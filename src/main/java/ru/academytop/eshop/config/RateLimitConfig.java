@@ -0,0 +1,35 @@
+package ru.academytop.eshop.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.academytop.eshop.security.LoginRateLimitFilter;
+
+import java.time.Duration;
+// Аннотация @Configuration указывает, что этот класс является конфигурационным классом Spring
+@Configuration
+public class RateLimitConfig {
+    // Регистрация фильтра ограничения попыток входа и регистрации.
+    // Порядок меньше порядка цепочки Spring Security, поэтому лишние попытки отклоняются до проверки пароля.
+    @Bean
+    public FilterRegistrationBean<LoginRateLimitFilter> loginRateLimitFilter(
+            @Value("${eshop.rate-limit.ip.burst:20}") int ipBurst,
+            @Value("${eshop.rate-limit.ip.per-minute:30}") int ipPerMinute,
+            @Value("${eshop.rate-limit.account.burst:5}") int accountBurst,
+            @Value("${eshop.rate-limit.account.per-minute:5}") int accountPerMinute,
+            @Value("${eshop.rate-limit.idle-minutes:15}") long idleMinutes,
+            @Value("${eshop.rate-limit.max-keys:100000}") long maxKeys,
+            MeterRegistry meterRegistry) {
+        LoginRateLimitFilter filter = new LoginRateLimitFilter(
+                new LoginRateLimitFilter.Limit(ipBurst, ipPerMinute),
+                new LoginRateLimitFilter.Limit(accountBurst, accountPerMinute),
+                Duration.ofMinutes(idleMinutes), maxKeys, meterRegistry);
+        FilterRegistrationBean<LoginRateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/login", "/users/registrate");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.academytop.eshop.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import ru.academytop.eshop.filters.SendfileFilter;
+import ru.academytop.eshop.filters.StaticAssetCacheFilter;
+
+import java.nio.file.Paths;
+import java.util.List;
+// Аннотация @Configuration указывает, что этот класс является конфигурационным классом Spring
+@Configuration
+public class StaticResourceConfig {
+    // Регистрация фильтра заголовков кэширования статических ресурсов.
+    // Версионирование адресов по хэшу содержимого и выбор .gz-копий настраиваются свойствами spring.web.resources.chain.*
+    @Bean
+    public FilterRegistrationBean<StaticAssetCacheFilter> staticAssetCacheFilter() {
+        StaticAssetCacheFilter filter = new StaticAssetCacheFilter(List.of("/CSS/", "/javaScript/", "/img/"), "/img/v/");
+        FilterRegistrationBean<StaticAssetCacheFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/CSS/*", "/javaScript/*", "/img/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 20);
+        return registration;
+    }
+    // Регистрация фильтра, отдающего крупные изображения через sendfile или FileChannel.transferTo.
+    // Порядок больше порядка цепочки Spring Security, чтобы ответ получил ее заголовки безопасности.
+    @Bean
+    public FilterRegistrationBean<SendfileFilter> sendfileFilter(
+            ResourceLoader resourceLoader,
+            @Value("${eshop.static.sendfile.min-size:49152}") long minSize,
+            @Value("${eshop.static.sendfile.spool-dir:data/static-spool}") String spoolDir,
+            MeterRegistry meterRegistry) {
+        SendfileFilter filter = new SendfileFilter(resourceLoader, "/img/", "/img/v/", minSize, Paths.get(spoolDir),
+                meterRegistry);
+        FilterRegistrationBean<SendfileFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/img/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 10);
+        return registration;
+    }
+}
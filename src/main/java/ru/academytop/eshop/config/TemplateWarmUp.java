@@ -0,0 +1,122 @@
+package ru.academytop.eshop.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.cache.ICache;
+import org.thymeleaf.cache.TemplateCacheKey;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.EngineContext;
+import org.thymeleaf.engine.TemplateModel;
+import org.thymeleaf.exceptions.TemplateProcessingException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Предварительный разбор шаблонов Thymeleaf при старте приложения.
+ * <p>
+ * Каждая страница из {@code templates/} разбирается и помещается в кэш шаблонов под тем же ключом, под которым
+ * ее ищет представление Spring MVC, но без выполнения выражений, так что модель и контекст запроса не нужны.
+ * Фрагменты, подключаемые страницей через {@code ~{fragment/... :: ...}}, кэшируются Thymeleaf отдельно для
+ * каждой страницы-владельца, поэтому они разбираются в контексте каждой такой страницы. Первый запрос к
+ * странице после старта не читает и не разбирает шаблоны.
+ * </p>
+ * <p>
+ * Работает только при включенном кэше шаблонов ({@code spring.thymeleaf.cache=true}); в профиле {@code dev}
+ * кэш выключен и шаблоны перечитываются при каждом запросе.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.thymeleaf.cache", havingValue = "true", matchIfMissing = true)
+public class TemplateWarmUp {
+    private static final String FRAGMENT_DIR = "fragment/";
+    private static final Pattern FRAGMENT_REFERENCE = Pattern.compile("~\\{\\s*([\\w/-]+)\\s*::\\s*([\\w-]+)\\s*}");
+    private final TemplateEngine templateEngine;
+    private final ResourcePatternResolver resourcePatternResolver;
+    private final String prefix;
+    private final String suffix;
+
+    /**
+     * Конструктор компонента предварительного разбора шаблонов.
+     *
+     * @param templateEngine          движок шаблонов.
+     * @param resourcePatternResolver поиск файлов шаблонов.
+     * @param prefix                  расположение шаблонов.
+     * @param suffix                  расширение файлов шаблонов.
+     */
+    @Autowired
+    public TemplateWarmUp(TemplateEngine templateEngine,
+                          ResourcePatternResolver resourcePatternResolver,
+                          @Value("${spring.thymeleaf.prefix:classpath:/templates/}") String prefix,
+                          @Value("${spring.thymeleaf.suffix:.html}") String suffix) {
+        this.templateEngine = templateEngine;
+        this.resourcePatternResolver = resourcePatternResolver;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Разбирает все страницы и подключаемые ими фрагменты после запуска приложения.
+     *
+     * @throws IOException если не удалось прочитать список шаблонов.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() throws IOException {
+        long started = System.nanoTime();
+        String root = resourcePatternResolver.getResource(prefix).getURL().toString();
+        int pages = 0;
+        int fragments = 0;
+        for (Resource resource : resourcePatternResolver.getResources(prefix + "**/*" + suffix)) {
+            String url = resource.getURL().toString();
+            String template = url.substring(root.length(), url.length() - suffix.length());
+            if (template.startsWith(FRAGMENT_DIR)) {
+                continue;
+            }
+            try {
+                fragments += warmUp(template, resource.getContentAsString(StandardCharsets.UTF_8));
+                pages++;
+            } catch (TemplateProcessingException ex) {
+                log.warn("Template {} could not be parsed at startup: {}", template, ex.getMessage());
+            }
+        }
+        log.info("Parsed {} templates and {} fragment inclusions in {} ms", pages, fragments,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private int warmUp(String template, String source) {
+        // Разбор и кэширование страницы без выполнения; ключ совпадает с ключом ThymeleafView
+        templateEngine.processThrottled(template, new Context());
+        IEngineConfiguration configuration = templateEngine.getConfiguration();
+        ICache<TemplateCacheKey, TemplateModel> cache = configuration.getCacheManager().getTemplateCache();
+        TemplateModel model = cache == null ? null
+                : cache.get(new TemplateCacheKey(null, template, null, 0, 0, null, null));
+        if (model == null) {
+            return 0;
+        }
+        EngineContext owner = new EngineContext(configuration, model.getTemplateData(), null, Locale.getDefault(),
+                Map.of());
+        int fragments = 0;
+        Matcher matcher = FRAGMENT_REFERENCE.matcher(source);
+        while (matcher.find()) {
+            configuration.getTemplateManager().parseStandalone(owner, matcher.group(1), Set.of(matcher.group(2)),
+                    null, true, true);
+            fragments++;
+        }
+        return fragments;
+    }
+}
@@ -1,14 +1,26 @@
 package ru.academytop.eshop.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.config.Customizer;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import ru.academytop.eshop.security.BoundedPasswordEncoder;
+import ru.academytop.eshop.security.CachingPersistentTokenRepository;
+import ru.academytop.eshop.security.PasswordHashingFailureHandler;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
 // Аннотация @Configuration указывает, что этот класс является конфигурационным классом Spring
 // Аннотация @EnableWebSecurity активирует поддержку веб-безопасности в приложении
 @Configuration
@@ -16,7 +28,11 @@ import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 public class WebSecurityConfig {
     // Определение бина SecurityFilterChain для конфигурации безопасности HTTP
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   PersistentTokenRepository persistentTokenRepository,
+                                                   @Value("${eshop.remember-me.key:}") String rememberMeKey,
+                                                   @Value("${eshop.remember-me.validity-seconds:1209600}")
+                                                   int rememberMeValiditySeconds) throws Exception {
         http
                 // Отключение защиты CSRF
                 .csrf().disable()
@@ -26,11 +42,18 @@ public class WebSecurityConfig {
                         .requestMatchers("/javaScript/**", "/img/**", "/CSS/**").permitAll()
                          // Разрешение доступа к определенным страницам без аутентификации
                         .requestMatchers("/", "/home", "/registration", "/users/registrate", "/login").permitAll()
-                         // Ограничение доступа к странице /admin только для пользователей с ролью ADMIN
-                        .requestMatchers("/admin").hasRole("ADMIN")
+                         // Ограничение доступа к странице /admin и ее разделам только для пользователей с ролью ADMIN
+                        .requestMatchers("/admin", "/admin/**").hasRole("ADMIN")
+                         // Метрики и состояние приложения доступны только администратору
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                          // Требование аутентификации для всех остальных запросов
                         .anyRequest().authenticated()
                 )
+                // Клиенты JSON API без входа получают 401 вместо перенаправления на страницу логина
+                .exceptionHandling(exceptions -> exceptions
+                        .defaultAuthenticationEntryPointFor(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED),
+                                new AntPathRequestMatcher("/api/**"))
+                )
                 // Конфигурация формы входа
                 .formLogin(form -> form
                         // Определение страницы логина
@@ -43,6 +66,8 @@ public class WebSecurityConfig {
                         .passwordParameter("password")
                         // URL для перенаправления после успешного логина
                         .defaultSuccessUrl("/home", true)
+                        // Ответ 503 при перегрузке пула хэширования паролей, иначе возврат на страницу логина
+                        .failureHandler(new PasswordHashingFailureHandler("/login?error"))
                         // Разрешение всем доступ к странице логина
                         .permitAll()
                 )
@@ -57,15 +82,43 @@ public class WebSecurityConfig {
                         // Разрешение всем доступ к странице логаута
                         .permitAll()
                 )
-                // Конфигурация Remember Me
-                .rememberMe(Customizer.withDefaults());
+                // Конфигурация Remember Me: токены серий хранятся в таблице persistent_logins
+                .rememberMe(rememberMe -> rememberMe
+                        // Имя флажка на странице логина
+                        .rememberMeParameter("remember")
+                        .tokenRepository(persistentTokenRepository)
+                        // Серии и токены хранятся в базе данных, ключ лишь подписывает аутентификацию внутри приложения,
+                        // поэтому без заданного ключа при каждом старте создается случайный
+                        .key(rememberMeKey.isBlank() ? UUID.randomUUID().toString() : rememberMeKey)
+                        .tokenValiditySeconds(rememberMeValiditySeconds)
+                );
         // Возврат построенного объекта SecurityFilterChain
         return http.build();
     }
-    // Определение бина PasswordEncoder для шифрования паролей
+    // Определение бина PasswordEncoder для шифрования паролей.
+    // BCrypt выполняется в отдельном ограниченном пуле потоков, а не в потоках Tomcat.
+    // Хэши с меньшей стоимостью, чем bcrypt-strength, перехэшируются при успешном входе.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${eshop.password.bcrypt-strength:10}") int strength,
+                                           @Value("${eshop.password.threads:0}") int threads,
+                                           @Value("${eshop.password.queue-capacity:64}") int queueCapacity,
+                                           @Value("${eshop.password.wait-ms:2000}") long waitMillis,
+                                           MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, waitMillis,
+                meterRegistry);
+    }
+    // Определение бина хранилища токенов Remember Me: таблица persistent_logins с кэшем по серии токена
+    @Bean
+    public PersistentTokenRepository persistentTokenRepository(DataSource dataSource,
+                                                               @Value("${eshop.remember-me.cache.ttl-seconds:300}")
+                                                               long ttlSeconds,
+                                                               @Value("${eshop.remember-me.cache.max-size:100000}")
+                                                               long maxSize,
+                                                               MeterRegistry meterRegistry) {
+        JdbcTokenRepositoryImpl jdbcTokenRepository = new JdbcTokenRepositoryImpl();
+        jdbcTokenRepository.setDataSource(dataSource);
+        return new CachingPersistentTokenRepository(jdbcTokenRepository, Duration.ofSeconds(ttlSeconds), maxSize,
+                meterRegistry);
     }
-
 }
@@ -1,5 +1,124 @@
 package ru.academytop.eshop.controllers;
 
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.ModelMap;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.ModelAndView;
+import ru.academytop.eshop.journal.OrderJournalReplayer;
+import ru.academytop.eshop.service.OrderExportService;
+import ru.academytop.eshop.service.SalesAnalyticsService;
+import ru.academytop.eshop.utils.PageName;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Контроллер для административных операций.
+ */
 // В разработке CRUD...
+@Controller
+@RequestMapping("/admin")
 public class AdminController {
+    private static final int DEFAULT_SALES_PERIOD_DAYS = 30;
+    private static final int TOP_PRODUCTS_LIMIT = 10;
+    private final OrderExportService orderExportService;
+    private final SalesAnalyticsService salesAnalyticsService;
+    private final OrderJournalReplayer orderJournalReplayer;
+
+    /**
+     * Конструктор, использующий Dependency Injection для внедрения зависимостей
+     * OrderExportService, SalesAnalyticsService и OrderJournalReplayer.
+     *
+     * @param orderExportService    сервис для выгрузки заказов
+     * @param salesAnalyticsService сервис аналитики продаж
+     * @param orderJournalReplayer  воспроизведение локального журнала заказов (доступно, если включено
+     *                              свойство eshop.order-journal.enabled)
+     */
+    @Autowired
+    public AdminController(OrderExportService orderExportService, SalesAnalyticsService salesAnalyticsService,
+                           ObjectProvider<OrderJournalReplayer> orderJournalReplayer) {
+        this.orderExportService = orderExportService;
+        this.salesAnalyticsService = salesAnalyticsService;
+        this.orderJournalReplayer = orderJournalReplayer.getIfAvailable();
+    }
+
+    /**
+     * Обработчик GET-запросов для отображения панели продаж.
+     * Данные берутся только из заранее построенных дневных сводок.
+     *
+     * @param from дата начала периода включительно (по умолчанию 30 дней назад)
+     * @param to   дата окончания периода включительно (по умолчанию сегодня)
+     * @return объект ModelAndView с данными для отображения панели продаж
+     */
+    @GetMapping("/sales")
+    public ModelAndView showSalesPage(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> to) {
+        LocalDate periodEnd = to.orElse(LocalDate.now());
+        LocalDate periodStart = from.orElse(periodEnd.minusDays(DEFAULT_SALES_PERIOD_DAYS));
+        ModelMap model = new ModelMap();
+        model.addAttribute("from", periodStart);
+        model.addAttribute("to", periodEnd);
+        model.addAttribute("categorySales", salesAnalyticsService.findDailyCategorySales(periodStart, periodEnd));
+        model.addAttribute("topProducts",
+                salesAnalyticsService.findTopProducts(periodStart, periodEnd, TOP_PRODUCTS_LIMIT));
+        return new ModelAndView(PageName.SALES_PAGE, model);
+    }
+
+    /**
+     * Обработчик GET-запросов для выгрузки заказов в формате CSV или NDJSON.
+     * Заказы пишутся прямо в поток ответа по мере чтения из базы данных.
+     *
+     * @param format   формат выгрузки: csv или ndjson (по умолчанию csv); для других значений возвращается 400
+     * @param from     дата начала интервала включительно (необязательный параметр)
+     * @param to       дата окончания интервала включительно (необязательный параметр)
+     * @param response HTTP-ответ, в который записываются данные
+     * @throws IOException если запись в ответ не удалась
+     */
+    @GetMapping("/orders/export")
+    public void exportOrders(@RequestParam(value = "format", defaultValue = "csv") String format,
+                             @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> from,
+                             @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> to,
+                             HttpServletResponse response) throws IOException {
+        OrderExportService.Format exportFormat = Arrays.stream(OrderExportService.Format.values())
+                .filter(value -> value.name().equals(format.toUpperCase(Locale.ROOT)))
+                .findFirst()
+                .orElse(null);
+        if (exportFormat == null) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unsupported export format: " + format);
+            return;
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders." + exportFormat.getExtension() + "\"");
+        orderExportService.export(exportFormat,
+                from.orElse(LocalDate.of(1970, 1, 1)).atStartOfDay(),
+                to.orElse(LocalDate.now()).plusDays(1).atStartOfDay(),
+                response.getOutputStream());
+    }
+
+    /**
+     * Обработчик POST-запросов для повторного применения заказов из журнала, отвергнутых базой данных
+     * (таблица order_journal_rejected), после устранения причины отказа.
+     *
+     * @return перенаправление на панель продаж с количеством примененных заказов
+     */
+    @PostMapping("/order-journal/retry-rejected")
+    public ModelAndView retryRejectedJournalOrders() {
+        int applied = orderJournalReplayer == null ? 0 : orderJournalReplayer.retryRejected();
+        return new ModelAndView("redirect:/admin/sales?retried=" + applied);
+    }
 }
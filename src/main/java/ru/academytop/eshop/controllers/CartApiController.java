@@ -0,0 +1,107 @@
+package ru.academytop.eshop.controllers;
+
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.academytop.eshop.dto.CartDto;
+import ru.academytop.eshop.service.CartService;
+import ru.academytop.eshop.service.ProductService;
+
+/**
+ * JSON API корзины покупок.
+ * <p>
+ * Корзина хранится в HTTP-сессии под тем же атрибутом {@code cartDto}, что и у {@link CartController},
+ * поэтому товары, добавленные через API, видны на HTML-странице корзины, и наоборот. Ответ содержит
+ * {@link CartDto}: товары корзины в виде {@link ru.academytop.eshop.dto.ProductDto}, общую стоимость и количество.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/v1/cart")
+public class CartApiController {
+    private static final String CART_ATTRIBUTE = "cartDto";
+    private final CartService cartService;
+    private final ProductService productService;
+
+    /**
+     * Конструктор контроллера JSON API корзины.
+     *
+     * @param cartService    сервис для работы с корзиной покупок
+     * @param productService сервис для проверки существования товара
+     */
+    @Autowired
+    public CartApiController(CartService cartService, ProductService productService) {
+        this.cartService = cartService;
+        this.productService = productService;
+    }
+
+    /**
+     * Возвращает содержимое корзины.
+     *
+     * @param session текущая HTTP-сессия
+     * @return корзина покупок
+     */
+    @GetMapping
+    public CartDto cart(HttpSession session) {
+        return currentCart(session);
+    }
+
+    /**
+     * Добавляет товар в корзину.
+     *
+     * @param productId идентификатор товара
+     * @param session   текущая HTTP-сессия
+     * @return обновленная корзина или 404, если товар не найден
+     */
+    @PostMapping("/items/{productId}")
+    public ResponseEntity<CartDto> addProduct(@PathVariable("productId") Integer productId, HttpSession session) {
+        if (productService.findById(productId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(store(session, cartService.addProduct(productId, currentCart(session))));
+    }
+
+    /**
+     * Удаляет товар из корзины.
+     *
+     * @param productId идентификатор товара
+     * @param session   текущая HTTP-сессия
+     * @return обновленная корзина
+     */
+    @DeleteMapping("/items/{productId}")
+    public CartDto removeProduct(@PathVariable("productId") Integer productId, HttpSession session) {
+        return store(session, cartService.removeProduct(productId, currentCart(session)));
+    }
+
+    /**
+     * Очищает корзину.
+     *
+     * @param session текущая HTTP-сессия
+     * @return пустая корзина
+     */
+    @DeleteMapping
+    public CartDto clear(HttpSession session) {
+        return store(session, cartService.clear(currentCart(session)));
+    }
+
+    /**
+     * Возвращает корзину из сессии, создавая пустую при первом обращении.
+     */
+    private static CartDto currentCart(HttpSession session) {
+        CartDto cart = (CartDto) session.getAttribute(CART_ATTRIBUTE);
+        return cart != null ? cart : store(session, new CartDto());
+    }
+
+    /**
+     * Сохраняет корзину в сессии.
+     */
+    private static CartDto store(HttpSession session, CartDto cart) {
+        session.setAttribute(CART_ATTRIBUTE, cart);
+        return cart;
+    }
+}
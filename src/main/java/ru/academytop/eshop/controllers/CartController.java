@@ -3,10 +3,12 @@ package ru.academytop.eshop.controllers;
 import ru.academytop.eshop.dto.CartDto;
 import ru.academytop.eshop.entity.Order;
 import ru.academytop.eshop.entity.User;
+import ru.academytop.eshop.entity.model.CustomUserDetail;
 import ru.academytop.eshop.service.CartService;
 import ru.academytop.eshop.service.OrderService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -116,20 +118,24 @@ public class CartController {
 
     /**
      * Сохраняет заказ.
+     * Заказ оплачивается с баланса текущего пользователя, поэтому идентификатор пользователя берется
+     * из аутентификации, а не из запроса.
      *
-     * @param cartDto объект корзины покупок, полученный из сессии
-     * @param userId  идентификатор пользователя
-     * @return объект ModelAndView с обновленной корзиной
+     * @param cartDto   объект корзины покупок, полученный из сессии
+     * @param principal текущий аутентифицированный пользователь
+     * @return объект ModelAndView с обновленной корзиной или с сообщением об ошибке, если заказ не создан
      */
-    @PostMapping("/order/{userId}")
+    @PostMapping("/order")
     public ModelAndView saveOrder(@ModelAttribute("cartDto") CartDto cartDto,
-                                  @PathVariable String userId) {
+                                  @AuthenticationPrincipal CustomUserDetail principal) {
         ModelMap modelParams = new ModelMap();
-        if (cartDto != null && userId != null) {
-            Integer id = Integer.valueOf(userId);
-            Order savedCart = orderService.save(cartDto, id);
+        if (cartDto != null && principal != null) {
+            Order savedCart = orderService.save(cartDto, principal.getUserId());
             if (savedCart != null) {
                 clearCart(cartDto, modelParams);
+            } else {
+                modelParams.addAttribute("orderError",
+                        "Some products in the cart are no longer available. Remove them and place the order again.");
             }
         }
         return new ModelAndView(PageName.CART_PAGE, modelParams);
@@ -0,0 +1,257 @@
+package ru.academytop.eshop.controllers;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.academytop.eshop.cache.CatalogVersion;
+import ru.academytop.eshop.dto.CategoryDto;
+import ru.academytop.eshop.dto.ProductCardDto;
+import ru.academytop.eshop.entity.Product;
+import ru.academytop.eshop.service.CategoryService;
+import ru.academytop.eshop.service.ImageVariantService;
+import ru.academytop.eshop.service.ProductService;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JSON API каталога: категории, страницы товаров категории, карточка товара и поиск.
+ * <p>
+ * Ответы собираются из компактных DTO и пишутся в поток ответа через {@link JsonGenerator}, без построения
+ * дерева объектов и без сериализации сущностей с ленивыми связями. Результаты поиска читаются курсором и
+ * отправляются порциями, как на HTML-странице поиска. Сжатие gzip выполняет Tomcat
+ * ({@code server.compression.*}).
+ * </p>
+ * <p>
+ * Содержимое всех ответов зависит только от данных каталога, поэтому ETag строится по {@link CatalogVersion}:
+ * повторный запрос с {@code If-None-Match} получает 304 без обращения к базе данных, пока каталог не изменится.
+ * ETag слабый, так как одно и то же содержимое отдается и сжатым, и без сжатия.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class CatalogApiController {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+    private final CategoryService categoryService;
+    private final ProductService productService;
+    private final ImageVariantService imageVariantService;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final int searchChunkSize;
+    // Версия каталога начинается с нуля при каждом запуске, поэтому ETag включает момент запуска
+    private final String instanceTag = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * Конструктор контроллера JSON API каталога.
+     *
+     * @param categoryService     сервис для работы с категориями
+     * @param productService      сервис для работы с продуктами
+     * @param imageVariantService сервис уменьшенных изображений для ссылок на картинки
+     * @param catalogVersion      версия каталога для ETag
+     * @param objectMapper        настроенный Jackson ObjectMapper приложения
+     * @param searchChunkSize     количество найденных товаров, отправляемых клиенту одной порцией
+     */
+    @Autowired
+    public CatalogApiController(CategoryService categoryService, ProductService productService,
+                                ImageVariantService imageVariantService, CatalogVersion catalogVersion,
+                                ObjectMapper objectMapper,
+                                @Value("${eshop.search.chunk-size:50}") int searchChunkSize) {
+        this.categoryService = categoryService;
+        this.productService = productService;
+        this.imageVariantService = imageVariantService;
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+        this.searchChunkSize = searchChunkSize;
+    }
+
+    /**
+     * Возвращает список категорий.
+     *
+     * @param webRequest текущий запрос для проверки If-None-Match
+     * @param response   HTTP-ответ, в который записывается JSON
+     * @throws IOException если запись в ответ не удалась
+     */
+    @GetMapping("/categories")
+    public void categories(WebRequest webRequest, HttpServletResponse response) throws IOException {
+        if (notModified(webRequest, response)) {
+            return;
+        }
+        try (JsonGenerator json = openJson(response)) {
+            json.writeStartArray();
+            for (CategoryDto category : categoryService.findAll()) {
+                json.writeStartObject();
+                json.writeNumberField("categoryId", category.getCategoryId());
+                json.writeStringField("name", category.getName());
+                if (category.getRating() != null) {
+                    json.writeNumberField("rating", category.getRating());
+                }
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+    }
+
+    /**
+     * Возвращает страницу товаров категории.
+     *
+     * @param categoryId идентификатор категории
+     * @param page       номер страницы, начиная с 1 (по умолчанию 1)
+     * @param size       количество товаров на странице (по умолчанию 20, не более 100)
+     * @param webRequest текущий запрос для проверки If-None-Match
+     * @param request    текущий HTTP-запрос
+     * @param response   HTTP-ответ, в который записывается JSON
+     * @throws IOException если запись в ответ не удалась
+     */
+    @GetMapping("/categories/{categoryId}/products")
+    public void categoryProducts(@PathVariable("categoryId") Integer categoryId,
+                                 @RequestParam("page") Optional<Integer> page,
+                                 @RequestParam("size") Optional<Integer> size,
+                                 WebRequest webRequest, HttpServletRequest request,
+                                 HttpServletResponse response) throws IOException {
+        int pageNumber = Math.max(page.orElse(1), 1);
+        int pageSize = Math.min(Math.max(size.orElse(DEFAULT_PAGE_SIZE), 1), MAX_PAGE_SIZE);
+        if (notModified(webRequest, response)) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Page<Product> products = categoryService.findProductsByCategoryId(categoryId,
+                PageRequest.of(pageNumber - 1, pageSize));
+        // Ссылки на изображения всей страницы одним запросом или из кэша
+        Map<Integer, String> imageLinks = productService.findImageLinks(products.getContent());
+        try (JsonGenerator json = openJson(response)) {
+            json.writeStartObject();
+            json.writeNumberField("categoryId", categoryId);
+            json.writeNumberField("page", pageNumber);
+            json.writeNumberField("size", pageSize);
+            json.writeNumberField("totalElements", products.getTotalElements());
+            json.writeNumberField("totalPages", products.getTotalPages());
+            json.writeArrayFieldStart("products");
+            for (Product product : products.getContent()) {
+                writeCard(json, toCard(product, imageLinks.get(product.getProductId())),
+                        ImageVariantService.Size.CARD, request);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Возвращает карточку товара.
+     *
+     * @param productId  идентификатор товара
+     * @param webRequest текущий запрос для проверки If-None-Match
+     * @param request    текущий HTTP-запрос
+     * @param response   HTTP-ответ, в который записывается JSON
+     * @throws IOException если запись в ответ не удалась
+     */
+    @GetMapping("/products/{productId}")
+    public void product(@PathVariable("productId") Integer productId, WebRequest webRequest,
+                        HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (notModified(webRequest, response)) {
+            return;
+        }
+        Optional<Product> product = productService.findById(productId);
+        if (product.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        String imageLink = product.get().getImage() == null ? null : product.get().getImage().getLink();
+        try (JsonGenerator json = openJson(response)) {
+            writeCard(json, toCard(product.get(), imageLink), ImageVariantService.Size.DETAIL, request);
+        }
+    }
+
+    /**
+     * Ищет товары по названию и описанию.
+     * Найденные товары пишутся в JSON-массив порциями по мере чтения из базы данных, поэтому время до первого
+     * байта и потребление памяти не зависят от количества результатов.
+     *
+     * @param searchKey  ключевое слово для поиска по названию и описанию
+     * @param webRequest текущий запрос для проверки If-None-Match
+     * @param request    текущий HTTP-запрос
+     * @param response   HTTP-ответ, в который записывается JSON
+     * @throws IOException если запись в ответ не удалась
+     */
+    @GetMapping("/products/search")
+    public void search(@RequestParam("q") String searchKey, WebRequest webRequest,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (notModified(webRequest, response)) {
+            return;
+        }
+        try (JsonGenerator json = openJson(response)) {
+            json.writeStartArray();
+            productService.streamSearch(searchKey, searchChunkSize, cards -> {
+                for (ProductCardDto card : cards) {
+                    writeCard(json, card, ImageVariantService.Size.CARD, request);
+                }
+                // Порция отправляется клиенту, не дожидаясь конца результата
+                json.flush();
+            });
+            json.writeEndArray();
+        }
+    }
+
+    /**
+     * Проверяет If-None-Match по версии каталога и задает заголовки кэширования ответа.
+     *
+     * @return true, если клиенту отправлен ответ 304.
+     */
+    private boolean notModified(WebRequest webRequest, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        return webRequest.checkNotModified("W/\"" + instanceTag + "-" + catalogVersion.current() + "\"");
+    }
+
+    private JsonGenerator openJson(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        return objectMapper.createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+    }
+
+    private static ProductCardDto toCard(Product product, String imageLink) {
+        return ProductCardDto.builder()
+                .productId(product.getProductId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .imageLink(imageLink)
+                .build();
+    }
+
+    /**
+     * Записывает товар JSON-объектом; поля без значения не записываются.
+     */
+    private void writeCard(JsonGenerator json, ProductCardDto card, ImageVariantService.Size imageSize,
+                           HttpServletRequest request) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("productId", card.getProductId());
+        json.writeStringField("name", card.getName());
+        if (card.getDescription() != null) {
+            json.writeStringField("description", card.getDescription());
+        }
+        json.writeNumberField("price", card.getPrice());
+        if (card.getImageLink() != null) {
+            String imageUrl = imageVariantService.variantUrl(card.getImageLink(), imageSize);
+            json.writeStringField("imageUrl",
+                    imageUrl.startsWith("/") ? request.getContextPath() + imageUrl : imageUrl);
+        }
+        json.writeEndObject();
+    }
+}
@@ -1,7 +1,11 @@
 package ru.academytop.eshop.controllers;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import ru.academytop.eshop.cache.FragmentCache;
 import ru.academytop.eshop.entity.Product;
 import ru.academytop.eshop.service.CategoryService;
+import ru.academytop.eshop.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -12,6 +16,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.ModelAndView;
+import ru.academytop.eshop.utils.FragmentRenderer;
 import ru.academytop.eshop.utils.PageName;
 
 import java.util.List;
@@ -27,49 +32,76 @@ import java.util.stream.IntStream;
 public class CategoryController {
     private final int NUMBER_ELEMENTS_ON_PAGE = 3;
     private final CategoryService categoryService;
+    private final ProductService productService;
+    private final FragmentCache fragmentCache;
+    private final FragmentRenderer fragmentRenderer;
 
     /**
-     * Конструктор, использующий Dependency Injection для внедрения зависимости CategoryService.
+     * Конструктор, использующий Dependency Injection для внедрения зависимостей
+     * CategoryService, ProductService и кэша фрагментов каталога.
      *
-     * @param categoryService сервис для работы с категориями
+     * @param categoryService  сервис для работы с категориями
+     * @param productService   сервис для работы с продуктами
+     * @param fragmentCache    кэш отрисованных фрагментов каталога
+     * @param fragmentRenderer отрисовка фрагментов шаблонов
      */
     @Autowired
-    public CategoryController(CategoryService categoryService) {
+    public CategoryController(CategoryService categoryService, ProductService productService,
+                              FragmentCache fragmentCache, FragmentRenderer fragmentRenderer) {
         this.categoryService = categoryService;
+        this.productService = productService;
+        this.fragmentCache = fragmentCache;
+        this.fragmentRenderer = fragmentRenderer;
     }
 
     /**
      * Обработчик GET-запросов для отображения страницы категории.
+     * <p>
+     * Карточки товаров и панель страниц одинаковы для всех пользователей, поэтому их HTML берется из кэша
+     * фрагментов по ключу (categoryId, page, size); товары загружаются из базы данных только при промахе.
+     * Панель навигации с корзиной пользователя отрисовывается при каждом запросе.
+     * </p>
      *
      * @param categoryId идентификатор категории (необязательный параметр)
      * @param page       номер страницы (необязательный параметр)
      * @param size       размер страницы (необязательный параметр)
+     * @param request    текущий HTTP-запрос
+     * @param response   текущий HTTP-ответ
      * @return объект ModelAndView с данными для отображения страницы категории
      */
     @GetMapping("/category")
     public ModelAndView showCategoryPage(
             @RequestParam Optional<Integer> categoryId,
             @RequestParam("page") Optional<Integer> page,
-            @RequestParam("size") Optional<Integer> size) {
+            @RequestParam("size") Optional<Integer> size,
+            HttpServletRequest request, HttpServletResponse response) {
         int currentPage = page.orElse(1);
         int pageSize = size.orElse(NUMBER_ELEMENTS_ON_PAGE);
         int id = categoryId.orElse(categoryId.orElseThrow(() -> new BadCredentialsException("Bad credentials.")));
-        // Получение страницы продуктов по идентификатору категории
-        Page<Product> products = categoryService.findProductsByCategoryId(id,
-                PageRequest.of(currentPage - 1, pageSize));
+        String catalogHtml = fragmentCache.get("category:" + id + ":" + currentPage + ":" + pageSize, () -> {
+            // Получение страницы продуктов по идентификатору категории
+            Page<Product> products = categoryService.findProductsByCategoryId(id,
+                    PageRequest.of(currentPage - 1, pageSize));
+            // Создание модели для передачи данных во фрагмент
+            ModelMap fragmentModel = new ModelMap();
+            fragmentModel.addAttribute("products", products);
+            // Ссылки на изображения всей страницы одним запросом или из кэша
+            fragmentModel.addAttribute("imageLinks", productService.findImageLinks(products.getContent()));
+            // Если есть несколько страниц, добавляем номера страниц в модель
+            int totalPages = products.getTotalPages();
+            if (totalPages > 0) {
+                List<Integer> pageNumbers = IntStream.rangeClosed(1, totalPages)
+                        .boxed()
+                        .collect(Collectors.toList());
+                fragmentModel.addAttribute("pageNumbers", pageNumbers);
+                fragmentModel.addAttribute("currentPage", currentPage);
+                fragmentModel.addAttribute("categoryId", categoryId);
+            }
+            return fragmentRenderer.render("fragment/catalog", "categoryProducts", fragmentModel, request, response);
+        });
         // Создание модели для передачи данных в представление
         ModelMap model = new ModelMap();
-        model.addAttribute("products", products);
-        // Если есть несколько страниц, добавляем номера страниц в модель
-        int totalPages = products.getTotalPages();
-        if (totalPages > 0) {
-            List<Integer> pageNumbers = IntStream.rangeClosed(1, totalPages)
-                    .boxed()
-                    .collect(Collectors.toList());
-            model.addAttribute("pageNumbers", pageNumbers);
-            model.addAttribute("currentPage", currentPage);
-            model.addAttribute("categoryId", categoryId);
-        }
+        model.addAttribute("catalogHtml", catalogHtml);
         // Возвращаем ModelAndView с моделью и именем представления
         return new ModelAndView(PageName.CATEGORY_PAGE, model);
     }
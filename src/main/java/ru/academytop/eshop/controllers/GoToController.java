@@ -1,17 +1,25 @@
 package ru.academytop.eshop.controllers;
 
+import ru.academytop.eshop.dto.AdminUserRowDto;
 import ru.academytop.eshop.dto.CartDto;
 import ru.academytop.eshop.service.CategoryService;
 import ru.academytop.eshop.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.ui.ModelMap;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.SessionAttributes;
 import org.springframework.web.servlet.ModelAndView;
+import ru.academytop.eshop.repository.AdminUserGridRepository;
 import ru.academytop.eshop.utils.PageName;
 
+import java.util.Optional;
+
 /**
  * Контроллер для управления навигацией между страницами.
  */
@@ -19,6 +27,8 @@ import ru.academytop.eshop.utils.PageName;
 @RequiredArgsConstructor
 @SessionAttributes({"cartDto"})
 public class GoToController {
+    private static final int ADMIN_PAGE_SIZE = 50;
+    private static final int ADMIN_MAX_PAGE_SIZE = 200;
     private final CategoryService categoryService;
     private final UserService userService;
     /**
@@ -43,13 +53,33 @@ public class GoToController {
     }
     /**
      * Обработчик GET-запросов для отображения страницы администратора.
+     * Пользователи выводятся постранично, с поиском по префиксу имени или почты и сортировкой.
      *
+     * @param search    префикс имени или электронной почты (необязательный параметр)
+     * @param page      номер страницы, начиная с 1 (необязательный параметр)
+     * @param size      размер страницы, не более 200 (необязательный параметр)
+     * @param sort      поле сортировки: id, name, email, balance, orders или spent (по умолчанию id)
+     * @param direction направление сортировки: asc или desc (по умолчанию asc)
      * @return объект ModelAndView с данными для отображения страницы администратора
      */
     @GetMapping("/admin")
-    public ModelAndView showAdminPage() {
+    public ModelAndView showAdminPage(@RequestParam(value = "q", defaultValue = "") String search,
+                                      @RequestParam("page") Optional<Integer> page,
+                                      @RequestParam("size") Optional<Integer> size,
+                                      @RequestParam(value = "sort", defaultValue = "id") String sort,
+                                      @RequestParam(value = "dir", defaultValue = "asc") String direction) {
+        int currentPage = Math.max(page.orElse(1), 1);
+        int pageSize = Math.min(Math.max(size.orElse(ADMIN_PAGE_SIZE), 1), ADMIN_MAX_PAGE_SIZE);
+        String sortField = AdminUserGridRepository.SORT_COLUMNS.containsKey(sort) ? sort : "id";
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Page<AdminUserRowDto> users = userService.findAdminPage(search,
+                PageRequest.of(currentPage - 1, pageSize, Sort.by(sortDirection, sortField)));
         ModelMap model = new ModelMap();
-        model.addAttribute("users", userService.findAll());
+        model.addAttribute("users", users);
+        model.addAttribute("q", search);
+        model.addAttribute("sort", sortField);
+        model.addAttribute("dir", sortDirection == Sort.Direction.DESC ? "desc" : "asc");
+        model.addAttribute("currentPage", currentPage);
         return new ModelAndView(PageName.ADMIN_PAGE, model);
     }
     /**
@@ -0,0 +1,70 @@
+package ru.academytop.eshop.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import ru.academytop.eshop.dto.ImageVariantDto;
+import ru.academytop.eshop.service.ImageVariantService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Контроллер для выдачи уменьшенных вариантов изображений товаров.
+ */
+@Controller
+public class ImageVariantController {
+    private static final CacheControl VARIANT_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable();
+    private final ImageVariantService imageVariantService;
+
+    /**
+     * Конструктор, использующий Dependency Injection для внедрения зависимости ImageVariantService.
+     *
+     * @param imageVariantService сервис вариантов изображений
+     */
+    @Autowired
+    public ImageVariantController(ImageVariantService imageVariantService) {
+        this.imageVariantService = imageVariantService;
+    }
+
+    /**
+     * Обработчик GET-запросов для получения варианта изображения, например {@code /img/v/320x400/jeans/Blue_Ridge.png}.
+     * <p>
+     * Вариант создается при первом запросе и затем отдается из дискового кэша с заголовком
+     * {@code Cache-Control: immutable} на год. Ключ содержимого передается как ETag, поэтому повторный
+     * условный запрос получает ответ 304.
+     * </p>
+     *
+     * @param width  ширина варианта
+     * @param height высота варианта
+     * @param path   путь к исходному изображению относительно {@code /img/}
+     * @return файл варианта или 404, если размер не разрешен или исходного изображения нет
+     * @throws IOException если не удалось создать вариант
+     */
+    @GetMapping("/img/v/{width:\\d+}x{height:\\d+}/{*path}")
+    public ResponseEntity<Resource> getVariant(@PathVariable int width, @PathVariable int height,
+                                               @PathVariable String path) throws IOException {
+        Optional<ImageVariantService.Size> size = ImageVariantService.Size.of(width, height);
+        if (size.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<ImageVariantDto> variant = imageVariantService.getVariant(path, size.get());
+        if (variant.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(VARIANT_CACHE_CONTROL)
+                .eTag(variant.get().getKey())
+                .contentType(MediaType.parseMediaType(variant.get().getContentType()))
+                .body(new FileSystemResource(variant.get().getFile()));
+    }
+}
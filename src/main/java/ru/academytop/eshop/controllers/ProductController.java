@@ -1,8 +1,12 @@
 package ru.academytop.eshop.controllers;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import ru.academytop.eshop.cache.FragmentCache;
 import ru.academytop.eshop.entity.Product;
 import ru.academytop.eshop.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.ui.ModelMap;
@@ -13,11 +17,14 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.ModelAndView;
+import ru.academytop.eshop.utils.FragmentRenderer;
 import ru.academytop.eshop.utils.PageName;
+import ru.academytop.eshop.utils.StreamingPageWriter;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -28,50 +35,75 @@ import java.util.stream.IntStream;
 @RequestMapping("/product")
 public class ProductController {
     private final ProductService productService;
+    private final FragmentCache fragmentCache;
+    private final FragmentRenderer fragmentRenderer;
+    private final StreamingPageWriter streamingPageWriter;
+    private final int searchChunkSize;
     /**
-     * Конструктор контроллера, инициализирующий сервис продуктов.
+     * Конструктор контроллера, инициализирующий сервис продуктов и кэш фрагментов каталога.
      *
-     * @param productService сервис для работы с продуктами
+     * @param productService      сервис для работы с продуктами
+     * @param fragmentCache       кэш отрисованных фрагментов каталога
+     * @param fragmentRenderer    отрисовка фрагментов шаблонов
+     * @param streamingPageWriter потоковый вывод страницы результатов поиска
+     * @param searchChunkSize     количество карточек, отправляемых клиенту одной порцией при поиске
      */
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, FragmentCache fragmentCache,
+                             FragmentRenderer fragmentRenderer, StreamingPageWriter streamingPageWriter,
+                             @Value("${eshop.search.chunk-size:50}") int searchChunkSize) {
         this.productService = productService;
+        this.fragmentCache = fragmentCache;
+        this.fragmentRenderer = fragmentRenderer;
+        this.streamingPageWriter = streamingPageWriter;
+        this.searchChunkSize = searchChunkSize;
     }
 
     /**
      * Обрабатывает GET-запрос для отображения страницы продукта по его идентификатору.
+     * Карточка продукта берется из кэша фрагментов; продукт загружается из базы данных только при промахе.
      *
      * @param productId идентификатор продукта
+     * @param request   текущий HTTP-запрос
+     * @param response  текущий HTTP-ответ
      * @return объект ModelAndView с именем представления и атрибутами модели
      */
     @GetMapping("/{productId}")
-    public ModelAndView showProductPage(@PathVariable("productId") Integer productId) {
+    public ModelAndView showProductPage(@PathVariable("productId") Integer productId,
+                                        HttpServletRequest request, HttpServletResponse response) {
         ModelMap model = new ModelMap();
         // Проверка на null для идентификатора продукта
         if (productId != null) {
-            // Получение продукта по идентификатору
-            Optional<Product> product = productService.findById(productId);
-            // Добавление продукта в модель, если он найден
-            model.addAttribute("product", product.get());
+            model.addAttribute("productCardHtml", fragmentCache.get("product:" + productId, () -> {
+                // Получение продукта по идентификатору
+                Optional<Product> product = productService.findById(productId);
+                return fragmentRenderer.render("fragment/catalog", "productCard",
+                        Map.of("product", product.get()), request, response);
+            }));
         }
         // Возвращение представления с данными продукта
         return new ModelAndView(PageName.PRODUCT_PAGE, model);
     }
     /**
      * Обрабатывает GET-запрос для поиска продуктов по ключевому слову.
+     * Заголовок и навигация страницы отправляются сразу, затем карточки найденных продуктов пишутся в ответ
+     * порциями по мере чтения из базы данных, поэтому время до первого байта не зависит от количества результатов.
      *
      * @param searchKey ключевое слово для поиска по имени и описанию продукта
-     * @return объект ModelAndView с именем представления и атрибутами модели
+     * @param request   текущий HTTP-запрос
+     * @param response  HTTP-ответ, в который записывается страница
+     * @throws IOException если запись в ответ не удалась
      */
     @GetMapping("/search")
-    public ModelAndView advancedSearch(@RequestParam("searchKey") String searchKey) {
-        ModelMap model = new ModelMap();
-        // Поиск продуктов по ключевому слову
-        Set<Product> products = productService.searchProductsByNameAndDescription(searchKey);
-        // Добавление найденных продуктов в модель
-        model.addAttribute("products", products);
-        // Возвращение представления с результатами поиска
-        return new ModelAndView(PageName.PRODUCT_PAGE, model);
+    public void advancedSearch(@RequestParam("searchKey") String searchKey,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        streamingPageWriter.write(PageName.SEARCH_PAGE, Map.of("searchKey", searchKey), request, response,
+                out -> productService.streamSearch(searchKey, searchChunkSize, cards -> {
+                    // Порция карточек отрисовывается фрагментом и сразу отправляется клиенту
+                    out.write(fragmentRenderer.render("fragment/catalog", "searchCards",
+                            Map.of("products", cards), request, response));
+                    out.flush();
+                }));
     }
     /**
      * Обрабатывает GET-запрос для отображения списка продуктов с пагинацией.
@@ -0,0 +1,53 @@
+package ru.academytop.eshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+/**
+ * DTO (Data Transfer Object) для строки таблицы пользователей на странице администратора.
+ * Содержит данные пользователя без пароля и агрегаты по его заказам, вычисленные в базе данных.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AdminUserRowDto {
+    /**
+     * Идентификатор пользователя.
+     */
+    private Integer userId;
+    /**
+     * Имя пользователя.
+     */
+    private String name;
+    /**
+     * Электронная почта пользователя.
+     */
+    private String email;
+    /**
+     * Дата рождения пользователя.
+     */
+    private LocalDate birthDate;
+    /**
+     * Баланс пользователя.
+     */
+    private BigDecimal balance;
+    /**
+     * Название роли пользователя.
+     */
+    private String roleName;
+    /**
+     * Количество заказов пользователя.
+     */
+    private long orderCount;
+    /**
+     * Общая сумма заказов пользователя.
+     */
+    private BigDecimal totalSpent;
+}
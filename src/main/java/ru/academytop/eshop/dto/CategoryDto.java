@@ -0,0 +1,26 @@
+package ru.academytop.eshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+/**
+ * DTO (Data Transfer Object) для представления категории товаров без списка товаров.
+ * Неизменяемый объект: экземпляры разделяются между потоками через {@link ru.academytop.eshop.cache.ReferenceDataRegistry}.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class CategoryDto {
+    /**
+     * Идентификатор категории.
+     */
+    private final Integer categoryId;
+    /**
+     * Название категории.
+     */
+    private final String name;
+    /**
+     * Рейтинг категории от 1 до 5.
+     */
+    private final Integer rating;
+}
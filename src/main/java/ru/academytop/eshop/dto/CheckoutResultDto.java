@@ -0,0 +1,37 @@
+package ru.academytop.eshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+/**
+ * DTO (Data Transfer Object) с результатом оформления заказа одним запросом.
+ * Содержит идентификатор и бизнес-ключ созданного заказа, стоимость по текущим ценам товаров и результат списания с баланса.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CheckoutResultDto {
+    /**
+     * Идентификатор созданного заказа.
+     */
+    private Integer orderId;
+    /**
+     * Бизнес-ключ созданного заказа, назначенный базой данных.
+     */
+    private UUID uuid;
+    /**
+     * Стоимость заказа, рассчитанная по ценам товаров в базе данных.
+     */
+    private BigDecimal price;
+    /**
+     * Имя пользователя, с баланса которого списана стоимость заказа, или null, если списания не было.
+     */
+    private String debitedUserName;
+}
@@ -0,0 +1,41 @@
+package ru.academytop.eshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+/**
+ * DTO (Data Transfer Object) для представления строки дневной сводки продаж.
+ * Содержит дату, идентификатор и название товара или категории, количество проданных единиц и выручку.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DailySalesDto {
+    /**
+     * Дата продаж. Для сводки за период может быть null.
+     */
+    private LocalDate salesDate;
+    /**
+     * Идентификатор товара или категории.
+     */
+    private Integer id;
+    /**
+     * Название товара или категории.
+     */
+    private String name;
+    /**
+     * Количество проданных единиц.
+     */
+    private long units;
+    /**
+     * Выручка.
+     */
+    private BigDecimal revenue;
+}
@@ -0,0 +1,32 @@
+package ru.academytop.eshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.nio.file.Path;
+/**
+ * DTO (Data Transfer Object) для представления готового варианта изображения в дисковом кэше.
+ * Содержит путь к файлу, MIME-тип и ключ содержимого, который используется как ETag.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImageVariantDto {
+    /**
+     * Путь к файлу варианта в дисковом кэше.
+     */
+    private Path file;
+    /**
+     * MIME-тип варианта (image/jpeg или image/png).
+     */
+    private String contentType;
+    /**
+     * Ключ содержимого: хэш исходного изображения и параметров преобразования.
+     */
+    private String key;
+}
@@ -0,0 +1,29 @@
+package ru.academytop.eshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+/**
+ * DTO (Data Transfer Object) для строки истории заказов пользователя.
+ * Неизменяемый объект без ссылок на сущности JPA, поэтому его можно хранить в кэше и отдавать в любой поток.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class OrderSummaryDto {
+    /**
+     * Идентификатор заказа.
+     */
+    private final Integer orderId;
+    /**
+     * Стоимость заказа.
+     */
+    private final BigDecimal price;
+    /**
+     * Дата и время создания заказа.
+     */
+    private final LocalDateTime createdAt;
+}
@@ -0,0 +1,38 @@
+package ru.academytop.eshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+/**
+ * DTO (Data Transfer Object) карточки продукта в результатах поиска.
+ * Содержит только то, что показывается в карточке: данные продукта и ссылку на его изображение.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductCardDto {
+    /**
+     * Идентификатор продукта.
+     */
+    private Integer productId;
+    /**
+     * Название продукта.
+     */
+    private String name;
+    /**
+     * Описание продукта.
+     */
+    private String description;
+    /**
+     * Цена продукта.
+     */
+    private double price;
+    /**
+     * Ссылка на изображение продукта или null, если изображения нет.
+     */
+    private String imageLink;
+}
@@ -0,0 +1,22 @@
+package ru.academytop.eshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+/**
+ * DTO (Data Transfer Object) для представления роли пользователя.
+ * Неизменяемый объект: экземпляры разделяются между потоками через {@link ru.academytop.eshop.cache.ReferenceDataRegistry}.
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+public class RoleDto {
+    /**
+     * Идентификатор роли.
+     */
+    private final Integer id;
+    /**
+     * Название роли.
+     */
+    private final String name;
+}
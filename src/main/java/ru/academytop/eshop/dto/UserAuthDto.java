@@ -0,0 +1,49 @@
+package ru.academytop.eshop.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+/**
+ * DTO (Data Transfer Object) с данными пользователя, необходимыми для аутентификации и страницы профиля.
+ * Заполняется отдельным запросом без загрузки заказов пользователя.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserAuthDto {
+    /**
+     * Идентификатор пользователя.
+     */
+    private Integer userId;
+    /**
+     * Имя пользователя (логин).
+     */
+    private String name;
+    /**
+     * Хэш пароля пользователя.
+     */
+    private String password;
+    /**
+     * Электронная почта пользователя.
+     */
+    private String email;
+    /**
+     * Дата рождения пользователя.
+     */
+    private LocalDate birthDate;
+    /**
+     * Баланс пользователя.
+     */
+    private BigDecimal balance;
+    /**
+     * Название роли пользователя.
+     */
+    private String roleName;
+}
@@ -0,0 +1,85 @@
+package ru.academytop.eshop.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.PrePersist;
+import org.hibernate.Hibernate;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Базовый класс сущностей с бизнес-ключом uuid.
+ * <p>
+ * Ключ назначается новому объекту при первом обращении или перед сохранением и не меняется при сохранении,
+ * поэтому на нем основаны equals и hashCode: объект остается в хэш-коллекции, в которую попал до сохранения,
+ * а хэш-коды равномерно распределяют объекты по хэш-таблицам. Ключ не создается в инициализаторе поля,
+ * чтобы загрузка строк из базы данных, где ключ берется из колонки {@code uuid}, не вызывала генератор
+ * случайных чисел.
+ * </p>
+ */
+@MappedSuperclass
+public abstract class BusinessKeyEntity {
+    /**
+     * Бизнес-ключ сущности.
+     */
+    @Column(name = "uuid", nullable = false, updatable = false)
+    private UUID uuid;
+
+    /**
+     * Возвращает бизнес-ключ, назначая его новому объекту при первом обращении.
+     *
+     * @return бизнес-ключ uuid
+     */
+    public UUID getUuid() {
+        if (uuid == null) {
+            uuid = UUID.randomUUID();
+        }
+        return uuid;
+    }
+
+    /**
+     * Устанавливает бизнес-ключ объекта, построенного по строке, уже сохраненной в базе данных.
+     *
+     * @param uuid бизнес-ключ uuid
+     */
+    public void setUuid(UUID uuid) {
+        this.uuid = uuid;
+    }
+
+    /**
+     * Назначает бизнес-ключ перед вставкой, если к нему еще не обращались.
+     */
+    @PrePersist
+    void assignUuid() {
+        getUuid();
+    }
+
+    /**
+     * Сравнивает сущности одного класса по бизнес-ключу.
+     * Прокси Hibernate сравниваются по классу сущности, которую они замещают.
+     *
+     * @param o объект для сравнения
+     * @return true, если объекты равны, иначе false
+     */
+    @Override
+    public boolean equals(Object o) {
+        // Сравнение с самим собой
+        if (this == o) return true;
+        // Проверка типов и нулевых значений
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        BusinessKeyEntity entity = (BusinessKeyEntity) o;
+        // Сравнение бизнес-ключей
+        return Objects.equals(getUuid(), entity.getUuid());
+    }
+
+    /**
+     * Возвращает хэш-код на основе бизнес-ключа.
+     *
+     * @return хэш-код сущности
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getUuid());
+    }
+}
@@ -12,13 +12,11 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * Сущность корзины покупок.
@@ -31,7 +29,7 @@ import java.util.Objects;
 @Entity
 @Table(name = "carts")
 @NoArgsConstructor
-public class Cart {
+public class Cart extends BusinessKeyEntity {
     /**
      * Идентификатор корзины (уникальный идентификатор).
      */
@@ -60,30 +58,4 @@ public class Cart {
      * Общее количество товаров в корзине.
      */
     private int quantity;
-
-    /**
-     * Переопределение метода equals для сравнения корзин по идентификатору.
-     * Два объекта Cart считаются равными, если у них одинаковый идентификатор.
-     *
-     * @param o объект для сравнения
-     * @return true, если объекты равны, иначе false
-     */
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
-        Cart cart = (Cart) o;
-        return cartId != null && Objects.equals(cartId, cart.cartId);
-    }
-
-    /**
-     * Переопределение метода hashCode для корректного использования в коллекциях.
-     * Возвращает хэш-код для корзины на основе ее класса.
-     *
-     * @return хэш-код корзины
-     */
-    @Override
-    public int hashCode() {
-        return getClass().hashCode();
-    }
-}
\ No newline at end of file
+}
@@ -3,6 +3,7 @@ package ru.academytop.eshop.entity;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -14,11 +15,11 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import org.hibernate.Hibernate;
 import org.hibernate.validator.constraints.Range;
+import ru.academytop.eshop.cache.CatalogVersionListener;
+import ru.academytop.eshop.cache.ReferenceDataListener;
 
 import java.util.HashSet;
-import java.util.Objects;
 import java.util.Set;
 /**
  * Сущность категории товаров.
@@ -29,8 +30,9 @@ import java.util.Set;
 @NoArgsConstructor
 @Builder
 @Entity
+@EntityListeners({ReferenceDataListener.class, CatalogVersionListener.class})
 @Table(name = "categories", schema = "public")
-public class Category {
+public class Category extends BusinessKeyEntity {
     /**
      * Уникальный идентификатор категории.
      */
@@ -53,32 +55,8 @@ public class Category {
     private Integer rating;
     /**
      * Множество товаров, принадлежащих данной категории.
-     * Загружается немедленно (FetchType.EAGER) и каскадно сохраняется и удаляется вместе с категорией.
+     * Загружается лениво (FetchType.LAZY) пакетами и каскадно сохраняется и удаляется вместе с категорией.
      */
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "category", cascade = CascadeType.ALL)
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "category", cascade = CascadeType.ALL)
     private Set<Product> products = new HashSet<>();
-    /**
-     * Переопределение метода equals для сравнения категорий по идентификатору.
-     * Две категории считаются равными, если у них одинаковый идентификатор.
-     *
-     * @param o объект для сравнения
-     * @return true, если объекты равны, иначе false
-     */
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
-        Category category = (Category) o;
-        return categoryId != null && Objects.equals(categoryId, category.categoryId);
-    }
-    /**
-     * Переопределение метода hashCode для корректного использования в коллекциях.
-     * Возвращает хэш-код для категории на основе ее класса.
-     *
-     * @return хэш-код категории
-     */
-    @Override
-    public int hashCode() {
-        return getClass().hashCode();
-    }
 }
@@ -3,6 +3,7 @@ package ru.academytop.eshop.entity;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.MapsId;
@@ -13,9 +14,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import org.hibernate.Hibernate;
+import ru.academytop.eshop.cache.CatalogVersionListener;
+import ru.academytop.eshop.cache.ImageLinkCacheListener;
 
-import java.util.Objects;
 /**
  * Сущность изображения товара.
  * Хранит информацию об изображении, связанное с конкретным товаром.
@@ -25,8 +26,9 @@ import java.util.Objects;
 @NoArgsConstructor
 @Builder
 @Entity
+@EntityListeners({ImageLinkCacheListener.class, CatalogVersionListener.class})
 @Table(name = "images")
-public class Image {
+public class Image extends BusinessKeyEntity {
     /**
      * Уникальный идентификатор изображения.
      * Также является идентификатором связанного товара.
@@ -50,28 +52,4 @@ public class Image {
     @MapsId
     @JoinColumn(name = "image_id")
     private Product product;
-    /**
-     * Переопределение метода equals для сравнения изображений по идентификатору.
-     * Два объекта Image считаются равными, если у них одинаковый идентификатор.
-     *
-     * @param o объект для сравнения
-     * @return true, если объекты равны, иначе false
-     */
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
-        Image image = (Image) o;
-        return productId != null && Objects.equals(productId, image.productId);
-    }
-    /**
-     * Переопределение метода hashCode для корректного использования в коллекциях.
-     * Возвращает хэш-код для изображения на основе его класса.
-     *
-     * @return хэш-код изображения
-     */
-    @Override
-    public int hashCode() {
-        return getClass().hashCode();
-    }
 }
@@ -11,19 +11,20 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import org.hibernate.Hibernate;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * Сущность заказа в системе электронной коммерции.
@@ -35,8 +36,15 @@ import java.util.Objects;
 @Builder
 @AllArgsConstructor
 @Entity
+@NamedEntityGraph(name = Order.WITH_PRODUCT_IMAGES,
+        attributeNodes = @NamedAttributeNode(value = "products", subgraph = "products"),
+        subgraphs = @NamedSubgraph(name = "products", attributeNodes = @NamedAttributeNode("image")))
 @Table(name = "orders")
-public class Order {
+public class Order extends BusinessKeyEntity {
+    /**
+     * Граф загрузки страницы заказа: товары заказа вместе с их изображениями.
+     */
+    public static final String WITH_PRODUCT_IMAGES = "Order.withProductImages";
     /**
      * Уникальный идентификатор заказа.
      * Генерируется автоматически.
@@ -61,9 +69,9 @@ public class Order {
     /**
      * Пользователь, который сделал заказ.
      * Связь многие к одному с сущностью User.
-     * Загружается немедленно (FetchType.EAGER).
+     * Загружается лениво (FetchType.LAZY).
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     /**
@@ -80,34 +88,4 @@ public class Order {
             joinColumns = {@JoinColumn(name = "order_id")},
             inverseJoinColumns = {@JoinColumn(name = "product_id")})
     private List<Product> products = new ArrayList<>();
-
-    /**
-     * Переопределение метода equals для сравнения заказов по идентификатору.
-     * Два объекта Order считаются равными, если у них одинаковый идентификатор.
-     *
-     * @param o объект для сравнения
-     * @return true, если объекты равны, иначе false
-     */
-    @Override
-    public boolean equals(Object o) {
-        // Сравнение с самим собой
-        if (this == o) return true;
-        // Проверка типов и нулевых значений
-        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
-        Order order = (Order) o;
-        // Сравнение идентификаторов
-        return orderId != null && Objects.equals(orderId, order.orderId);
-    }
-
-    /**
-     * Переопределение метода hashCode для корректного использования в коллекциях.
-     * Возвращает хэш-код для заказа на основе его класса.
-     *
-     * @return хэш-код заказа
-     */
-    @Override
-    public int hashCode() {
-        // Генерация хэш-кода на основе класса
-        return getClass().hashCode();
-    }
 }
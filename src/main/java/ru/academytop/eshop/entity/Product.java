@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -11,6 +12,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrimaryKeyJoinColumn;
 import jakarta.persistence.Table;
@@ -19,11 +22,10 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.Hibernate;
+import ru.academytop.eshop.cache.CatalogVersionListener;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * Сущность продукта в системе электронной коммерции.
@@ -36,8 +38,14 @@ import java.util.Objects;
 @NoArgsConstructor
 @Builder
 @Entity
+@EntityListeners(CatalogVersionListener.class)
+@NamedEntityGraph(name = Product.WITH_IMAGE, attributeNodes = @NamedAttributeNode("image"))
 @Table(name = "products")
-public class Product {
+public class Product extends BusinessKeyEntity {
+    /**
+     * Граф загрузки карточек товаров: товар вместе с изображением.
+     */
+    public static final String WITH_IMAGE = "Product.withImage";
     /**
      * Уникальный идентификатор продукта.
      * Генерируется автоматически.
@@ -64,8 +72,9 @@ public class Product {
      * Категория, к которой относится продукт.
      * Связь многие к одному с сущностью Category.
      * Значение не может быть null.
+     * Загружается лениво (FetchType.LAZY).
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
     /**
@@ -86,38 +95,9 @@ public class Product {
      * Связь один к одному с сущностью Image.
      * Каскадное сохранение (CascadeType.ALL) для сохранения изображения вместе с продуктом.
      * Используется PrimaryKeyJoinColumn для связывания с идентификатором продукта.
+     * Изображение есть у каждого продукта (optional = false), поэтому оно может загружаться лениво (FetchType.LAZY).
      */
-    @OneToOne(cascade = {CascadeType.ALL})
+    @OneToOne(cascade = {CascadeType.ALL}, fetch = FetchType.LAZY, optional = false)
     @PrimaryKeyJoinColumn
     private Image image;
-
-    /**
-     * Переопределение метода equals для сравнения продуктов по идентификатору.
-     * Два объекта Product считаются равными, если у них одинаковый идентификатор.
-     *
-     * @param o объект для сравнения
-     * @return true, если объекты равны, иначе false
-     */
-    @Override
-    public boolean equals(Object o) {
-        // Сравнение с самим собой
-        if (this == o) return true;
-        // Проверка типов и нулевых значений
-        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
-        Product product = (Product) o;
-        // Сравнение идентификаторов
-        return productId != null && Objects.equals(productId, product.productId);
-    }
-
-    /**
-     * Переопределение метода hashCode для корректного использования в коллекциях.
-     * Возвращает хэш-код для продукта на основе его класса.
-     *
-     * @return хэш-код продукта
-     */
-    @Override
-    public int hashCode() {
-        return getClass().hashCode();// Генерация хэш-кода на основе класса
-    }
 }
-
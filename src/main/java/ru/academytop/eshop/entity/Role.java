@@ -2,6 +2,8 @@ package ru.academytop.eshop.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -9,10 +11,10 @@ import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
-import org.hibernate.Hibernate;
+import ru.academytop.eshop.cache.ReferenceDataListener;
+import ru.academytop.eshop.cache.UserDetailsCacheListener;
 
 import java.util.HashSet;
-import java.util.Objects;
 import java.util.Set;
 /**
  * Сущность роли пользователя в системе.
@@ -21,8 +23,9 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
+@EntityListeners({UserDetailsCacheListener.class, ReferenceDataListener.class})
 @Table(name = "roles")
-public class Role {
+public class Role extends BusinessKeyEntity {
     /**
      * Уникальный идентификатор роли.
      * Генерируется автоматически.
@@ -42,32 +45,6 @@ public class Role {
      * Связь один ко многим с сущностью User.
      * Поле не обязательно загружать (FetchType.LAZY) для повышения производительности.
      */
-    @OneToMany(mappedBy = "role")
+    @OneToMany(mappedBy = "role", fetch = FetchType.LAZY)
     private Set<User> users = new HashSet<>();
-    /**
-     * Переопределение метода equals для сравнения ролей по идентификатору.
-     * Две роли считаются равными, если у них одинаковый идентификатор.
-     *
-     * @param o объект для сравнения
-     * @return true, если объекты равны, иначе false
-     */
-    @Override
-    public boolean equals(Object o) {
-        // Сравнение с самим собой
-        if (this == o) return true;
-        // Проверка типов и нулевых значений
-        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
-        Role role = (Role) o;
-        // Сравнение идентификаторов
-        return id != null && Objects.equals(id, role.id);
-    }
-    /**
-     * Переопределение метода hashCode для корректного использования в коллекциях.
-     * Возвращает хэш-код для роли на основе ее класса.
-     *
-     * @return хэш-код роли
-     */
-    @Override
-    public int hashCode() {
-        return getClass().hashCode();} // Генерация хэш-кода на основе класса
-}
\ No newline at end of file
+}
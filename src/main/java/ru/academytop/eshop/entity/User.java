@@ -3,6 +3,7 @@ package ru.academytop.eshop.entity;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -18,13 +19,12 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import org.hibernate.Hibernate;
 import org.springframework.format.annotation.DateTimeFormat;
+import ru.academytop.eshop.cache.UserDetailsCacheListener;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.HashSet;
-import java.util.Objects;
 import java.util.Set;
 /**
  * Сущность пользователя в системе.
@@ -35,8 +35,9 @@ import java.util.Set;
 @NoArgsConstructor
 @Builder
 @Entity
+@EntityListeners(UserDetailsCacheListener.class)
 @Table(name = "users")
-public class User {
+public class User extends BusinessKeyEntity {
     /**
      * Уникальный идентификатор пользователя.
      * Генерируется автоматически.
@@ -82,42 +83,16 @@ public class User {
     /**
      * Список заказов пользователя.
      * Связь один ко многим с сущностью Order.
-     * Значение загружается немедленно (FetchType.EAGER) и может быть изменено вместе с пользователем (CascadeType.ALL).
+     * Значение загружается лениво (FetchType.LAZY) и может быть изменено вместе с пользователем (CascadeType.ALL).
      */
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "user", cascade = CascadeType.ALL)
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "user", cascade = CascadeType.ALL)
     private Set<Order> orders = new HashSet<>();
     /**
      * Роль пользователя.
      * Связь многие к одному с сущностью Role.
+     * Загружается лениво (FetchType.LAZY).
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "role_id", nullable = false)
     private Role role;
-    /**
-     * Переопределение метода equals для сравнения пользователей по идентификатору.
-     * Два пользователя считаются равными, если у них одинаковый идентификатор.
-     *
-     * @param o объект для сравнения
-     * @return true, если объекты равны, иначе false
-     */
-    @Override
-    public boolean equals(Object o) {
-        // Сравнение с самим собой
-        if (this == o) return true;
-        // Проверка типов и нулевых значений
-        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
-        User user = (User) o;
-        // Сравнение идентификаторов
-        return userId != null && Objects.equals(userId, user.userId);
-    }
-    /**
-     * Переопределение метода hashCode для корректного использования в коллекциях.
-     * Возвращает хэш-код для пользователя на основе его класса.
-     *
-     * @return хэш-код пользователя
-     */
-    @Override
-    public int hashCode() {
-        return getClass().hashCode();
-    }// Генерация хэш-кода на основе класса
 }
@@ -1,6 +1,6 @@
 package ru.academytop.eshop.entity.model;
 
-import ru.academytop.eshop.entity.User;
+import ru.academytop.eshop.dto.UserAuthDto;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,14 +15,14 @@ import java.util.Collections;
  * Этот класс предоставляет информацию о пользователе для Spring Security.
  */
 public class CustomUserDetail implements UserDetails {
-    // Сущность User, содержащая данные о пользователе
-    private final User user;
+    // Данные пользователя, загруженные запросом для аутентификации
+    private final UserAuthDto user;
     /**
      * Конструктор класса, инициализирующий пользовательские данные.
      *
-     * @param user объект сущности User, содержащий информацию о пользователе
+     * @param user объект UserAuthDto, содержащий информацию о пользователе
      */
-    public CustomUserDetail(User user) {
+    public CustomUserDetail(UserAuthDto user) {
         this.user = user;
     }
     /**
@@ -33,7 +33,7 @@ public class CustomUserDetail implements UserDetails {
      */
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singletonList(new SimpleGrantedAuthority(user.getRole().getName()));
+        return Collections.singletonList(new SimpleGrantedAuthority(user.getRoleName()));
     }
     /**
      * Возвращает пароль пользователя.
@@ -115,7 +115,7 @@ public class CustomUserDetail implements UserDetails {
      * @return название роли пользователя
      */
     public String getRoleName() {
-        return user.getRole().getName();
+        return user.getRoleName();
     }
     /**
      * Возвращает баланс пользователя.
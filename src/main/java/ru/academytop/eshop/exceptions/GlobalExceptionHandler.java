@@ -1,6 +1,7 @@
 package ru.academytop.eshop.exceptions;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.servlet.ModelAndView;
@@ -32,4 +33,35 @@ public class GlobalExceptionHandler {
         return modelAndView;
     }
 
-}
\ No newline at end of file
+    /**
+     * Обработчик исключений для случая, когда пул хэширования паролей перегружен (например, при регистрации).
+     * Возвращает страницу ошибки со статусом 503 Service Unavailable.
+     *
+     * @param ex исключение, которое было выброшено
+     * @return объект {@link ModelAndView}, указывающий на страницу ошибки с сообщением
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ModelAndView handlePasswordHashingRejectedException(PasswordHashingRejectedException ex) {
+        ModelAndView modelAndView = new ModelAndView(PageName.ERROR_PAGE);
+        modelAndView.setStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        modelAndView.addObject("error_message", "Service is busy, please try again later");
+        log.warn("Password hashing rejected: {}", ex.getMessage());
+        return modelAndView;
+    }
+
+    /**
+     * Обработчик исключений для случая, когда на балансе недостаточно средств для оплаты заказа.
+     * Возвращает страницу ошибки со статусом 402 Payment Required.
+     *
+     * @param ex исключение, которое было выброшено
+     * @return объект {@link ModelAndView}, указывающий на страницу ошибки с сообщением
+     */
+    @ExceptionHandler(InsufficientBalanceException.class)
+    public ModelAndView handleInsufficientBalanceException(InsufficientBalanceException ex) {
+        ModelAndView modelAndView = new ModelAndView(PageName.ERROR_PAGE);
+        modelAndView.setStatus(HttpStatus.PAYMENT_REQUIRED);
+        modelAndView.addObject("error_message", "Insufficient balance to pay for the order");
+        log.info("Order payment declined: {}", ex.getMessage());
+        return modelAndView;
+    }
+}
@@ -0,0 +1,18 @@
+package ru.academytop.eshop.exceptions;
+
+/**
+ * Исключение, которое выбрасывается, если на балансе пользователя недостаточно средств для оплаты заказа.
+ * <p>
+ * Выбрасывается внутри транзакции сохранения заказа, поэтому заказ откатывается вместе с ней.
+ * </p>
+ */
+public class InsufficientBalanceException extends RuntimeException {
+    /**
+     * Конструктор для создания нового экземпляра {@code InsufficientBalanceException}.
+     *
+     * @param message Сообщение, описывающее причину исключения.
+     */
+    public InsufficientBalanceException(String message) {
+        super(message);
+    }
+}
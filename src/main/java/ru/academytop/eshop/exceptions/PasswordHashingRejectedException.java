@@ -0,0 +1,22 @@
+package ru.academytop.eshop.exceptions;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Исключение, которое выбрасывается, если пул хэширования паролей перегружен.
+ * <p>
+ * Наследуется от {@link AuthenticationServiceException}, поэтому при входе в систему оно передается
+ * обработчику неудачной аутентификации, а не приводит к ошибке 500. В обоих случаях (вход и регистрация)
+ * клиенту возвращается ответ 503 Service Unavailable.
+ * </p>
+ */
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+    /**
+     * Конструктор для создания нового экземпляра {@code PasswordHashingRejectedException}.
+     *
+     * @param message Сообщение, описывающее причину исключения.
+     */
+    public PasswordHashingRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,293 @@
+package ru.academytop.eshop.filters;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.academytop.eshop.cache.CatalogVersion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Кэш полных HTML-страниц для анонимных пользователей.
+ * <p>
+ * GET-запрос к одному из адресов {@code paths} без аутентифицированной сессии и без cookie Remember Me
+ * обслуживается из кэша, не доходя до Spring Security, контроллеров и Hibernate. Ключ записи - путь и параметры
+ * запроса в отсортированном виде. Тело хранится в двух готовых вариантах, gzip и без сжатия, и выбирается по
+ * заголовку {@code Accept-Encoding}, поэтому попадание в кэш - только копирование байтов.
+ * </p>
+ * <p>
+ * В течение {@code ttl} запись свежая. Следующие {@code staleWhileRevalidate} запись еще отдается, но первый
+ * такой запрос запускает фоновое обновление: фильтр повторяет запрос к этому же серверу через loopback
+ * с секретным заголовком, и новый ответ заменяет запись. Записи, сохраненные до изменения каталога
+ * ({@link CatalogVersion}), не отдаются.
+ * </p>
+ * <p>
+ * Кэшируются только ответы 200 с типом {@code text/html} и без {@code Set-Cookie}; заголовки ответа, включая
+ * заголовки безопасности, сохраняются и повторяются при попадании.
+ * </p>
+ */
+@Slf4j
+public class PageCacheFilter extends OncePerRequestFilter {
+    private static final String REFRESH_HEADER = "X-Page-Cache-Refresh";
+    private static final String STATUS_HEADER = "X-Page-Cache";
+    private static final String REMEMBER_ME_COOKIE = "remember-me";
+    private static final Set<String> SKIPPED_HEADERS = Set.of(HttpHeaders.SET_COOKIE.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(), HttpHeaders.CONTENT_ENCODING.toLowerCase(),
+            HttpHeaders.CONTENT_TYPE.toLowerCase(), HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.DATE.toLowerCase(), HttpHeaders.VARY.toLowerCase());
+    private final Set<String> paths;
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final CatalogVersion catalogVersion;
+    private final Cache<String, CachedPage> cache;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final String refreshToken = UUID.randomUUID().toString();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(2))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Конструктор фильтра.
+     *
+     * @param paths                адреса кэшируемых страниц, например {@code /home}.
+     * @param ttl                  время, в течение которого запись свежая.
+     * @param staleWhileRevalidate время после {@code ttl}, в течение которого запись отдается с фоновым обновлением.
+     * @param maxBytes             максимальный суммарный размер тел в кэше.
+     * @param catalogVersion       версия каталога товаров.
+     * @param meterRegistry        реестр метрик.
+     */
+    public PageCacheFilter(Set<String> paths, Duration ttl, Duration staleWhileRevalidate, long maxBytes,
+                           CatalogVersion catalogVersion, MeterRegistry meterRegistry) {
+        this.paths = Set.copyOf(paths);
+        this.ttlNanos = ttl.toNanos();
+        this.staleNanos = staleWhileRevalidate.toNanos();
+        this.catalogVersion = catalogVersion;
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedPage page) -> key.length() + page.identity.length + page.gzip.length)
+                .expireAfterWrite(ttl.plus(staleWhileRevalidate))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "pages");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod())
+                || !paths.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!isAnonymous(request)) {
+            count("bypass");
+            chain.doFilter(request, response);
+            return;
+        }
+        String key = key(request);
+        boolean refresh = isRefresh(request);
+        CachedPage page = refresh ? null : cache.getIfPresent(key);
+        if (page != null && page.catalogVersion == catalogVersion.current()) {
+            long age = System.nanoTime() - page.storedAt;
+            if (age < ttlNanos) {
+                count("hit");
+                write(page, "HIT", age, request, response);
+                return;
+            }
+            if (age < ttlNanos + staleNanos) {
+                count("stale");
+                write(page, "STALE", age, request, response);
+                revalidate(key, request);
+                return;
+            }
+        }
+        count(refresh ? "refresh" : "miss");
+        long version = catalogVersion.current();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+            CachedPage rendered = capture(wrapper, version);
+            if (rendered != null) {
+                cache.put(key, rendered);
+            }
+        } finally {
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Запрос анонимный, если в сессии нет контекста безопасности и нет cookie Remember Me,
+     * по которой Spring Security мог бы выполнить вход.
+     */
+    private static boolean isAnonymous(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session != null
+                && session.getAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY) != null) {
+            return false;
+        }
+        Cookie[] cookies = request.getCookies();
+        return cookies == null || Arrays.stream(cookies).noneMatch(c -> REMEMBER_ME_COOKIE.equals(c.getName()));
+    }
+
+    private boolean isRefresh(HttpServletRequest request) {
+        if (!refreshToken.equals(request.getHeader(REFRESH_HEADER))) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(request.getRemoteAddr()).isLoopbackAddress();
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static String key(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String query = request.getQueryString();
+        if (query == null || query.isEmpty()) {
+            return path;
+        }
+        String[] params = query.split("&");
+        Arrays.sort(params);
+        return path + "?" + String.join("&", params);
+    }
+
+    private static CachedPage capture(ContentCachingResponseWrapper wrapper, long version) throws IOException {
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || contentType == null
+                || !MediaType.TEXT_HTML.isCompatibleWith(MediaType.parseMediaType(contentType))
+                || !wrapper.getHeaders(HttpHeaders.SET_COOKIE).isEmpty()) {
+            return null;
+        }
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : wrapper.getHeaderNames()) {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase())) {
+                headers.put(name, List.copyOf(wrapper.getHeaders(name)));
+            }
+        }
+        byte[] identity = wrapper.getContentAsByteArray();
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream(identity.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(gzip)) {
+            out.write(identity);
+        }
+        return new CachedPage(contentType, headers, identity, gzip.toByteArray(), System.nanoTime(), version);
+    }
+
+    private static void write(CachedPage page, String status, long ageNanos, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        page.headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] body = gzip ? page.gzip : page.identity;
+        response.setContentType(page.contentType);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setHeader(HttpHeaders.AGE, Long.toString(ageNanos / 1_000_000_000L));
+        response.setHeader(STATUS_HEADER, status);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!"gzip".equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException ex) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Запускает фоновое обновление записи повторным запросом к этому же серверу через loopback.
+     * Для каждого ключа одновременно выполняется не более одного обновления.
+     */
+    private void revalidate(String key, HttpServletRequest request) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        URI uri = URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+                + request.getLocalPort() + request.getContextPath() + key);
+        HttpRequest refresh = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header(REFRESH_HEADER, refreshToken)
+                .GET()
+                .build();
+        httpClient.sendAsync(refresh, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((result, ex) -> {
+                    refreshing.remove(key);
+                    if (ex != null) {
+                        log.warn("Page cache refresh of {} failed: {}", key, ex.toString());
+                    }
+                });
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("eshop.page-cache.requests", "result", result).increment();
+    }
+
+    private static final class CachedPage {
+        private final String contentType;
+        private final Map<String, List<String>> headers;
+        private final byte[] identity;
+        private final byte[] gzip;
+        private final long storedAt;
+        private final long catalogVersion;
+
+        private CachedPage(String contentType, Map<String, List<String>> headers, byte[] identity, byte[] gzip,
+                           long storedAt, long catalogVersion) {
+            this.contentType = contentType;
+            this.headers = headers;
+            this.identity = identity;
+            this.gzip = gzip;
+            this.storedAt = storedAt;
+            this.catalogVersion = catalogVersion;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package ru.academytop.eshop.filters;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Фильтр, отдающий крупные статические изображения без копирования через буферы приложения.
+ * <p>
+ * Если контейнер поддерживает sendfile (атрибут Tomcat {@code org.apache.tomcat.sendfile.support}), фильтр только
+ * выставляет заголовки и передает Tomcat имя файла и границы диапазона, а сам файл отправляется в сокет ядром
+ * после выхода из цепочки фильтров. Иначе файл пишется в ответ через {@link FileChannel#transferTo}.
+ * Поддерживается один диапазон {@code Range: bytes=...} с проверкой {@code If-Range}; запросы нескольких
+ * диапазонов, файлы меньше порога и неизвестные пути передаются дальше обработчику ресурсов Spring.
+ * </p>
+ * <p>
+ * Ресурсы из classpath, упакованные в jar, один раз копируются в каталог {@code spoolDir}, так как sendfile
+ * работает только с файлами файловой системы. Адреса с хэшем содержимого ({@code /img/bg4-<md5>.jpg})
+ * отдаются, только если хэш совпадает с MD5 файла.
+ * </p>
+ */
+@Slf4j
+public class SendfileFilter extends OncePerRequestFilter {
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final Pattern CONTENT_HASH = Pattern.compile("^(.+)-([0-9a-f]{32})(\\.[^/.]+)$");
+    private static final String RESOURCE_LOCATION = "classpath:static";
+    private final ResourceLoader resourceLoader;
+    private final String prefix;
+    private final String excludedPrefix;
+    private final long minSize;
+    private final Path spoolDir;
+    private final Map<String, StaticFile> files = new ConcurrentHashMap<>();
+    private final Counter sendfileBytes;
+    private final Counter transferBytes;
+
+    /**
+     * Конструктор фильтра.
+     *
+     * @param resourceLoader загрузчик статических ресурсов из classpath.
+     * @param prefix         префикс обслуживаемых адресов (например, {@code /img/}).
+     * @param excludedPrefix префикс адресов, которые отдает контроллер (варианты изображений).
+     * @param minSize        минимальный размер файла в байтах, начиная с которого он отдается этим фильтром.
+     * @param spoolDir       каталог для копий ресурсов, упакованных в jar.
+     * @param meterRegistry  реестр метрик.
+     */
+    public SendfileFilter(ResourceLoader resourceLoader, String prefix, String excludedPrefix, long minSize,
+                          Path spoolDir, MeterRegistry meterRegistry) {
+        this.resourceLoader = resourceLoader;
+        this.prefix = prefix;
+        this.excludedPrefix = excludedPrefix;
+        this.minSize = minSize;
+        this.spoolDir = spoolDir;
+        this.sendfileBytes = Counter.builder("eshop.static.bytes").tag("mode", "sendfile").register(meterRegistry);
+        this.transferBytes = Counter.builder("eshop.static.bytes").tag("mode", "transfer").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        String path = path(request);
+        return !path.startsWith(prefix) || path.startsWith(excludedPrefix)
+                || path.contains("..") || path.contains("\\");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StaticFile file = resolve(path(request));
+        if (file == null || file.length < minSize) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && range.indexOf(',') >= 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, file.etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, file.lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (notModified(request, file)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        long start = 0;
+        long end = file.length - 1;
+        if (range != null && ifRangeMatches(request, file)) {
+            long[] bounds = parseRange(range, file.length);
+            if (bounds == null) {
+                chain.doFilter(request, response);
+                return;
+            }
+            if (bounds.length == 0) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = bounds[0];
+            end = bounds[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + file.length);
+        }
+        long count = end - start + 1;
+        String contentType = getServletContext().getMimeType(file.path.getFileName().toString());
+        response.setContentType(contentType == null ? "application/octet-stream" : contentType);
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, file.path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            sendfileBytes.increment(count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+        transferBytes.increment(count);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Находит файл для адреса запроса. Адрес с хэшем содержимого сводится к исходному имени файла.
+     *
+     * @return описание файла или null, если ресурса нет или хэш в адресе устарел.
+     */
+    private StaticFile resolve(String path) throws IOException {
+        Matcher matcher = CONTENT_HASH.matcher(path);
+        String sourcePath = matcher.matches() ? matcher.group(1) + matcher.group(3) : path;
+        StaticFile file = files.get(sourcePath);
+        if (file == null) {
+            file = load(sourcePath);
+            if (file == null) {
+                return null;
+            }
+            files.put(sourcePath, file);
+        }
+        if (matcher.matches() && !matcher.group(2).equals(file.md5)) {
+            return null;
+        }
+        return file;
+    }
+
+    private StaticFile load(String sourcePath) throws IOException {
+        Resource resource = resourceLoader.getResource(RESOURCE_LOCATION + sourcePath);
+        if (!resource.exists() || !resource.isReadable()) {
+            return null;
+        }
+        MessageDigest digest = md5();
+        if (resource.isFile()) {
+            Path path = resource.getFile().toPath();
+            try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            return new StaticFile(path, Files.size(path), resource.lastModified(),
+                    HexFormat.of().formatHex(digest.digest()));
+        }
+        Files.createDirectories(spoolDir);
+        Path tmp = Files.createTempFile(spoolDir, "static", ".tmp");
+        try {
+            try (InputStream in = new DigestInputStream(resource.getInputStream(), digest)) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String md5 = HexFormat.of().formatHex(digest.digest());
+            Path path = spoolDir.resolve(md5 + "-" + sourcePath.substring(sourcePath.lastIndexOf('/') + 1));
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("Static resource {} spooled to {}", sourcePath, path);
+            return new StaticFile(path, Files.size(path), resource.lastModified(), md5);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static boolean notModified(HttpServletRequest request, StaticFile file) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return "*".equals(ifNoneMatch.trim()) || ifNoneMatch.contains(file.etag);
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            return ifModifiedSince != -1 && file.lastModified / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, StaticFile file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(file.etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == file.lastModified / 1000;
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Разбирает заголовок с одним диапазоном байтов.
+     *
+     * @return {@code [start, end]} включительно, пустой массив для неудовлетворимого диапазона
+     * или null для заголовка, который фильтр не разбирает.
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=")) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return new long[0];
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? length - 1
+                        : Math.min(length - 1, Long.parseLong(spec.substring(dash + 1)));
+            }
+            if (start >= length || start > end) {
+                return new long[0];
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static final class StaticFile {
+        private final Path path;
+        private final long length;
+        private final long lastModified;
+        private final String md5;
+        private final String etag;
+
+        private StaticFile(Path path, long length, long lastModified, String md5) {
+            this.path = path;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.md5 = md5;
+            this.etag = "\"" + md5 + "\"";
+        }
+    }
+}
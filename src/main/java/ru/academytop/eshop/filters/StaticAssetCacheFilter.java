@@ -0,0 +1,122 @@
+package ru.academytop.eshop.filters;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Фильтр, выставляющий заголовок Cache-Control для статических ресурсов.
+ * <p>
+ * Ссылки на статические ресурсы в шаблонах переписываются цепочкой ресурсов Spring в адреса с хэшем содержимого
+ * ({@code /CSS/style-<md5>.css}). Содержимое такого адреса никогда не меняется, поэтому он кэшируется на год
+ * с директивой {@code immutable} и не перепроверяется браузером. Адреса без хэша (например, из внешних ссылок)
+ * получают {@code no-cache} и перепроверяются по Last-Modified.
+ * </p>
+ * <p>
+ * Адрес с хэшем проверяется только по виду, до поиска ресурса, поэтому {@code immutable} остается лишь
+ * у успешных ответов (200, 206 и 304). Если ресурс не найден или запрос завершился ошибкой либо перенаправлением,
+ * заголовок заменяется на {@code no-cache}, чтобы браузер и прокси не запомнили ошибку на год.
+ * </p>
+ * <p>
+ * Заголовок выставляется до цепочки Spring Security, которая в этом случае не добавляет свой запрет кэширования.
+ * </p>
+ */
+public class StaticAssetCacheFilter extends OncePerRequestFilter {
+    private static final Pattern CONTENT_HASH = Pattern.compile("-[0-9a-f]{32}\\.[^/]+$");
+    private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable()
+            .getHeaderValue();
+    private static final String REVALIDATE = CacheControl.noCache().cachePublic().getHeaderValue();
+    private final List<String> locations;
+    private final String excludedPrefix;
+
+    /**
+     * Конструктор фильтра.
+     *
+     * @param locations      префиксы адресов статических ресурсов (например, {@code /CSS/}).
+     * @param excludedPrefix префикс адресов, заголовки которых выставляет контроллер (варианты изображений).
+     */
+    public StaticAssetCacheFilter(List<String> locations, String excludedPrefix) {
+        this.locations = List.copyOf(locations);
+        this.excludedPrefix = excludedPrefix;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith(excludedPrefix) || locations.stream().noneMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean versioned = CONTENT_HASH.matcher(request.getRequestURI()).find();
+        if (!versioned) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        try {
+            chain.doFilter(request, new ImmutableOnSuccessResponse(response));
+        } catch (IOException | ServletException | RuntimeException ex) {
+            // Статус 500 выставит контейнер в обход обертки
+            response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+            throw ex;
+        }
+    }
+
+    /**
+     * Обертка ответа, заменяющая {@code immutable} на {@code no-cache}, если ответ не успешный.
+     */
+    private static final class ImmutableOnSuccessResponse extends HttpServletResponseWrapper {
+
+        ImmutableOnSuccessResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setStatus(int status) {
+            revalidateUnlessSuccessful(status);
+            super.setStatus(status);
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            revalidateUnlessSuccessful(status);
+            super.sendError(status);
+        }
+
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            revalidateUnlessSuccessful(status);
+            super.sendError(status, message);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            revalidateUnlessSuccessful(SC_FOUND);
+            super.sendRedirect(location);
+        }
+
+        private void revalidateUnlessSuccessful(int status) {
+            if (status != SC_OK && status != SC_PARTIAL_CONTENT && status != SC_NOT_MODIFIED) {
+                setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ru.academytop.eshop.jobs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Планировщик обслуживания месячных партиций таблицы {@code orders}.
+ * <p>
+ * Заранее создает партиции на {@code eshop.orders.partitions.months-ahead} месяцев вперед, чтобы новые заказы
+ * не попадали в партицию по умолчанию, и отсоединяет партиции старше {@code eshop.orders.partitions.retention-months}
+ * месяцев. Отсоединенная партиция остается в базе как обычная таблица и может быть заархивирована.
+ * Значение retention-months, равное 0, отключает отсоединение.
+ * </p>
+ * <p>
+ * Внешний ключ с {@code orders_products} на {@code orders} невозможен без ключа партиционирования, поэтому
+ * позиции заказов отсоединяемой партиции в той же транзакции переносятся в таблицу {@code <партиция>_products}
+ * и удаляются из {@code orders_products}: в рабочей таблице не остается позиций без заказов.
+ * </p>
+ */
+@Slf4j
+@Component
+public class OrderPartitionManager {
+    private static final String PARTITION_PREFIX = "orders_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    /**
+     * Конструктор планировщика партиций.
+     *
+     * @param jdbcTemplate        шаблон для выполнения DDL-запросов.
+     * @param transactionTemplate шаблон транзакции, в которой партиция отсоединяется вместе с позициями заказов.
+     * @param monthsAhead         на сколько месяцев вперед создавать партиции.
+     * @param retentionMonths     сколько месяцев хранить партиции подключенными (0 - хранить всегда).
+     */
+    @Autowired
+    public OrderPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 @Value("${eshop.orders.partitions.months-ahead:3}") int monthsAhead,
+                                 @Value("${eshop.orders.partitions.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * Выполняет обслуживание партиций сразу после старта приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    /**
+     * Создает недостающие будущие партиции и отсоединяет устаревшие.
+     */
+    @Scheduled(cron = "${eshop.orders.partitions.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        if (retentionMonths > 0) {
+            detachPartitionsBefore(current.minusMonths(retentionMonths));
+        }
+    }
+
+    /**
+     * Создает партицию для указанного месяца, если она еще не существует.
+     *
+     * @param month месяц партиции.
+     */
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        try {
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF orders FOR VALUES FROM ('%s') TO ('%s')",
+                    partitionName(month), from, to));
+        } catch (DataAccessException ex) {
+            // Например, если в партиции по умолчанию уже есть строки за этот месяц
+            log.warn("Unable to create orders partition for {}", month, ex);
+        }
+    }
+
+    /**
+     * Отсоединяет все месячные партиции, которые целиком лежат раньше указанного месяца.
+     *
+     * @param boundary первый месяц, партиции которого остаются подключенными.
+     */
+    private void detachPartitionsBefore(YearMonth boundary) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = 'orders'", String.class);
+        for (String partition : partitions) {
+            YearMonth month = parseMonth(partition);
+            if (month != null && month.isBefore(boundary)) {
+                detachPartition(partition);
+                log.info("Detached orders partition {}", partition);
+            }
+        }
+    }
+
+    /**
+     * Переносит позиции заказов партиции в архивную таблицу и отсоединяет партицию одной транзакцией.
+     *
+     * @param partition имя таблицы партиции.
+     */
+    private void detachPartition(String partition) {
+        String lines = partition + "_products";
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + lines + " AS SELECT op.* FROM orders_products op "
+                    + "JOIN " + partition + " o ON o.order_id = op.order_id");
+            jdbcTemplate.update("DELETE FROM orders_products op USING " + partition + " o "
+                    + "WHERE o.order_id = op.order_id");
+            jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION " + partition);
+        });
+    }
+
+    /**
+     * Возвращает имя партиции для указанного месяца, например {@code orders_p2024_07}.
+     *
+     * @param month месяц партиции.
+     * @return имя таблицы партиции.
+     */
+    private String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    /**
+     * Извлекает месяц из имени партиции.
+     *
+     * @param partition имя таблицы партиции.
+     * @return месяц партиции или null, если имя не соответствует шаблону (например, партиция по умолчанию).
+     */
+    private YearMonth parseMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.academytop.eshop.jobs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.academytop.eshop.service.SalesAnalyticsService;
+
+/**
+ * Периодическая задача построения дневных сводок продаж.
+ * <p>
+ * Каждый запуск добавляет в сводки только заказы, появившиеся после предыдущего запуска,
+ * поэтому стоимость прохода зависит от количества новых заказов, а не от размера таблицы {@code orders}.
+ * </p>
+ */
+@Slf4j
+@Component
+public class SalesRollupJob {
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    /**
+     * Конструктор задачи построения сводок.
+     *
+     * @param salesAnalyticsService сервис аналитики продаж.
+     */
+    @Autowired
+    public SalesRollupJob(SalesAnalyticsService salesAnalyticsService) {
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+
+    /**
+     * Добавляет новые заказы в дневные сводки.
+     */
+    @Scheduled(fixedDelayString = "${eshop.sales.rollup.interval-ms:60000}")
+    public void rollup() {
+        int processed = salesAnalyticsService.rollupNewOrders();
+        if (processed > 0) {
+            log.debug("Sales rollup processed order id range of {}", processed);
+        }
+    }
+}
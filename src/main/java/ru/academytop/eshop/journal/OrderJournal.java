@@ -0,0 +1,591 @@
+package ru.academytop.eshop.journal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Локальный журнал принятых заказов (store-and-forward).
+ * <p>
+ * Журнал состоит из сегментов фиксированного размера, отображенных в память. Каждая запись хранится
+ * в виде {@code [длина][CRC32C][данные]}; нулевая длина обозначает конец записанной части сегмента.
+ * Запись считается принятой только после сброса страниц на диск: отдельный поток выполняет
+ * {@link MappedByteBuffer#force(int, int)} для всех записей, накопившихся с предыдущего сброса,
+ * поэтому одновременные заказы разделяют один fsync (group commit).
+ * </p>
+ * <p>
+ * При старте сегменты проверяются по контрольным суммам, и оборванный хвост последнего сегмента
+ * обнуляется. Воспроизведение журнала в базу данных выполняет {@link OrderJournalReplayer}.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "eshop.order-journal.enabled", havingValue = "true")
+public class OrderJournal {
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int HEADER_BYTES = 8;
+    private static final byte FORMAT_VERSION = 2;
+    // Записи первой версии содержали стоимость заказа из корзины; при чтении она пропускается
+    private static final byte PRICED_FORMAT_VERSION = 1;
+    private final Path directory;
+    private final int segmentBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final Thread flusher;
+    private Segment active;
+    private long appendedSeq;
+    private long durableSeq;
+    private long durableSegment;
+    private int durablePosition;
+    private IOException failure;
+    private boolean closed;
+    // Отображение сегмента, из которого читает воспроизведение; переиспользуется между проходами
+    private MappedByteBuffer readBuffer;
+    private long readSegment = -1;
+
+    /**
+     * Конструктор журнала. Восстанавливает состояние существующих сегментов и запускает поток сброса на диск.
+     *
+     * @param directory    каталог сегментов журнала.
+     * @param segmentBytes размер одного сегмента в байтах.
+     * @throws IOException если каталог или сегменты недоступны.
+     */
+    @Autowired
+    public OrderJournal(@Value("${eshop.order-journal.dir:./data/order-journal}") String directory,
+                        @Value("${eshop.order-journal.segment-bytes:16777216}") int segmentBytes) throws IOException {
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(this.directory);
+        recover();
+        this.flusher = new Thread(this::flushLoop, "order-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Добавляет запись в журнал и ждет, пока она будет сброшена на диск.
+     *
+     * @param entry запись о принятом заказе.
+     * @throws UncheckedIOException если запись не удалось сохранить на диск.
+     */
+    public void append(OrderJournalEntry entry) {
+        byte[] payload = encode(entry);
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes + HEADER_BYTES > segmentBytes) {
+            throw new IllegalArgumentException("Order journal record of " + recordBytes
+                    + " bytes does not fit into a segment");
+        }
+        lock.lock();
+        try {
+            checkUsable();
+            if (active.remaining() < recordBytes + HEADER_BYTES) {
+                roll();
+            }
+            active.write(payload);
+            long seq = ++appendedSeq;
+            pending.signal();
+            while (durableSeq < seq) {
+                checkUsable();
+                durable.awaitUninterruptibly();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Читает сброшенные на диск записи, начиная с указанной позиции.
+     *
+     * @param from       позиция, с которой начинается чтение.
+     * @param maxRecords максимальное количество записей.
+     * @return прочитанные записи вместе с позицией, следующей за каждой из них.
+     * @throws IOException если сегмент не удалось прочитать.
+     */
+    public List<Record> read(Position from, int maxRecords) throws IOException {
+        long limitSegment;
+        int limitPosition;
+        lock.lock();
+        try {
+            limitSegment = durableSegment;
+            limitPosition = durablePosition;
+        } finally {
+            lock.unlock();
+        }
+        List<Record> records = new ArrayList<>();
+        long segment = from.getSegment();
+        int position = from.getOffset();
+        while (records.size() < maxRecords && segment <= limitSegment) {
+            int limit = segment == limitSegment ? limitPosition : segmentBytes;
+            MappedByteBuffer buffer = mapForRead(segment);
+            if (buffer != null) {
+                while (records.size() < maxRecords && position + HEADER_BYTES <= limit) {
+                    byte[] payload = readRecord(buffer, position, limit);
+                    if (payload == null) {
+                        break;
+                    }
+                    position += HEADER_BYTES + payload.length;
+                    records.add(new Record(decode(payload), new Position(segment, position)));
+                }
+            }
+            if (records.size() >= maxRecords || segment == limitSegment) {
+                break;
+            }
+            segment++;
+            position = 0;
+        }
+        return records;
+    }
+
+    /**
+     * Возвращает сохраненную позицию воспроизведения журнала.
+     *
+     * @return позиция первой невоспроизведенной записи.
+     * @throws IOException если файл контрольной точки не удалось прочитать.
+     */
+    public Position loadCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return new Position(firstSegment(), 0);
+        }
+        String[] parts = Files.readString(file, StandardCharsets.US_ASCII).trim().split(" ");
+        return new Position(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+    }
+
+    /**
+     * Атомарно сохраняет позицию воспроизведения журнала и удаляет полностью воспроизведенные сегменты.
+     *
+     * @param position позиция первой невоспроизведенной записи.
+     * @throws IOException если контрольную точку не удалось сохранить.
+     */
+    public void saveCheckpoint(Position position) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.writeString(temp, position.getSegment() + " " + position.getOffset(), StandardCharsets.US_ASCII,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC);
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        long activeSegment;
+        lock.lock();
+        try {
+            activeSegment = active.number;
+        } finally {
+            lock.unlock();
+        }
+        for (long number : segmentNumbers()) {
+            if (number < position.getSegment() && number < activeSegment) {
+                releaseReadBuffer(number);
+                Files.deleteIfExists(segmentPath(number));
+            }
+        }
+    }
+
+    /**
+     * Останавливает поток сброса, предварительно сбросив на диск все принятые записи.
+     */
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            pending.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Цикл потока сброса: ждет новые записи и сбрасывает их на диск одним вызовом force.
+     */
+    private void flushLoop() {
+        while (true) {
+            Segment segment;
+            int position;
+            long target;
+            lock.lock();
+            try {
+                while (appendedSeq == durableSeq && !closed) {
+                    pending.awaitUninterruptibly();
+                }
+                if (appendedSeq == durableSeq) {
+                    return;
+                }
+                segment = active;
+                position = active.position;
+                target = appendedSeq;
+            } finally {
+                lock.unlock();
+            }
+            IOException error = null;
+            try {
+                segment.force(position);
+            } catch (RuntimeException ex) {
+                error = new IOException("Failed to force order journal segment " + segment.number, ex);
+            }
+            lock.lock();
+            try {
+                if (error != null) {
+                    log.error("Order journal is no longer writable", error);
+                    failure = error;
+                    durable.signalAll();
+                    return;
+                }
+                durableSeq = Math.max(durableSeq, target);
+                markDurable(segment.number, position);
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Закрывает заполненный сегмент, сбросив его на диск, и открывает следующий.
+     *
+     * @throws IOException если новый сегмент не удалось создать.
+     */
+    private void roll() throws IOException {
+        active.force(active.position);
+        markDurable(active.number, active.position);
+        active.close();
+        active = Segment.open(segmentPath(active.number + 1), active.number + 1, segmentBytes);
+    }
+
+    /**
+     * Продвигает границу сброшенных на диск записей, не допуская ее отката назад.
+     *
+     * @param segment  номер сегмента.
+     * @param position позиция в сегменте.
+     */
+    private void markDurable(long segment, int position) {
+        if (segment > durableSegment || (segment == durableSegment && position > durablePosition)) {
+            durableSegment = segment;
+            durablePosition = position;
+        }
+    }
+
+    /**
+     * Проверяет, что журнал открыт и последний сброс на диск завершился успешно.
+     *
+     * @throws IOException если журнал закрыт или сброс завершился ошибкой.
+     */
+    private void checkUsable() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (closed) {
+            throw new IOException("Order journal is closed");
+        }
+    }
+
+    /**
+     * Восстанавливает состояние журнала: находит конец записанной части последнего сегмента
+     * и обнуляет оборванный хвост.
+     *
+     * @throws IOException если сегменты не удалось прочитать.
+     */
+    private void recover() throws IOException {
+        List<Long> numbers = segmentNumbers();
+        long last = numbers.isEmpty() ? 0 : numbers.get(numbers.size() - 1);
+        active = Segment.open(segmentPath(last), last, segmentBytes);
+        int position = 0;
+        while (position + HEADER_BYTES <= segmentBytes) {
+            byte[] payload = readRecord(active.buffer, position, segmentBytes);
+            if (payload == null) {
+                break;
+            }
+            position += HEADER_BYTES + payload.length;
+        }
+        int tail = active.truncate(position);
+        if (tail > 0) {
+            log.warn("Order journal segment {} had a torn tail of {} bytes at offset {}, truncated",
+                    last, tail, position);
+        }
+        durableSegment = last;
+        durablePosition = position;
+    }
+
+    /**
+     * Читает запись по указанной позиции и проверяет ее контрольную сумму.
+     *
+     * @param buffer   отображенный сегмент.
+     * @param position позиция заголовка записи.
+     * @param limit    граница читаемой части сегмента.
+     * @return данные записи или null, если в позиции нет целой записи.
+     */
+    private static byte[] readRecord(MappedByteBuffer buffer, int position, int limit) {
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + HEADER_BYTES + length > limit) {
+            return null;
+        }
+        int checksum = buffer.getInt(position + 4);
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_BYTES, payload);
+        return checksum(payload) == checksum ? payload : null;
+    }
+
+    /**
+     * Возвращает отображение сегмента в память только для чтения.
+     * <p>
+     * Отображение последнего читаемого сегмента сохраняется и используется повторно: каждый проход
+     * воспроизведения обычно читает тот же сегмент, что и предыдущий. Отображение общее с записывающим
+     * потоком, поэтому новые записи видны в нем без повторного отображения.
+     * </p>
+     *
+     * @param number номер сегмента.
+     * @return отображенный сегмент или null, если файл уже удален.
+     * @throws IOException если файл не удалось открыть.
+     */
+    private synchronized MappedByteBuffer mapForRead(long number) throws IOException {
+        if (number == readSegment && readBuffer != null) {
+            return readBuffer;
+        }
+        Path path = segmentPath(number);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), segmentBytes));
+            // Сегмент создается сразу полного размера; неполное отображение не кэшируется
+            if (buffer.capacity() == segmentBytes) {
+                readBuffer = buffer;
+                readSegment = number;
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * Забывает отображение читаемого сегмента, если этот сегмент удален.
+     *
+     * @param number номер удаленного сегмента.
+     */
+    private synchronized void releaseReadBuffer(long number) {
+        if (number == readSegment) {
+            readBuffer = null;
+            readSegment = -1;
+        }
+    }
+
+    private long firstSegment() throws IOException {
+        List<Long> numbers = segmentNumbers();
+        return numbers.isEmpty() ? 0 : numbers.get(0);
+    }
+
+    private List<Long> segmentNumbers() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%020d%s", number, SEGMENT_SUFFIX));
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(OrderJournalEntry entry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entry.getProductIds().size() * 4);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(entry.getJournalKey().getMostSignificantBits());
+            out.writeLong(entry.getJournalKey().getLeastSignificantBits());
+            out.writeInt(entry.getUserId());
+            out.writeLong(entry.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(entry.getCreatedAt().getNano());
+            out.writeInt(entry.getProductIds().size());
+            for (Integer productId : entry.getProductIds()) {
+                out.writeInt(productId);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static OrderJournalEntry decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION && version != PRICED_FORMAT_VERSION) {
+                throw new IOException("Unsupported order journal record version " + version);
+            }
+            UUID journalKey = new UUID(in.readLong(), in.readLong());
+            int userId = in.readInt();
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            if (version == PRICED_FORMAT_VERSION) {
+                in.readUTF();
+            }
+            int count = in.readInt();
+            List<Integer> productIds = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                productIds.add(in.readInt());
+            }
+            return OrderJournalEntry.builder()
+                    .journalKey(journalKey)
+                    .userId(userId)
+                    .createdAt(createdAt)
+                    .productIds(productIds)
+                    .build();
+        }
+    }
+
+    /**
+     * Позиция в журнале: номер сегмента и смещение внутри него.
+     */
+    public static final class Position {
+        private final long segment;
+        private final int offset;
+
+        public Position(long segment, int offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+
+        public long getSegment() {
+            return segment;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Position)) return false;
+            Position position = (Position) o;
+            return segment == position.segment && offset == position.offset;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(segment) * 31 + offset;
+        }
+    }
+
+    /**
+     * Прочитанная запись журнала и позиция, следующая за ней.
+     */
+    public static final class Record {
+        private final OrderJournalEntry entry;
+        private final Position next;
+
+        Record(OrderJournalEntry entry, Position next) {
+            this.entry = entry;
+            this.next = next;
+        }
+
+        public OrderJournalEntry getEntry() {
+            return entry;
+        }
+
+        public Position getNext() {
+            return next;
+        }
+    }
+
+    /**
+     * Сегмент журнала, открытый для записи.
+     */
+    private static final class Segment {
+        private final long number;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private int flushed;
+
+        private Segment(long number, FileChannel channel, MappedByteBuffer buffer) {
+            this.number = number;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, long number, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(number, channel, buffer);
+        }
+
+        int remaining() {
+            return buffer.capacity() - position;
+        }
+
+        void write(byte[] payload) {
+            buffer.put(position + HEADER_BYTES, payload);
+            buffer.putInt(position + 4, checksum(payload));
+            buffer.putInt(position, payload.length);
+            position += HEADER_BYTES + payload.length;
+        }
+
+        synchronized void force(int upTo) {
+            int from = flushed;
+            if (upTo > from) {
+                buffer.force(from, upTo - from);
+                flushed = upTo;
+            }
+        }
+
+        synchronized int truncate(int upTo) {
+            int tail = 0;
+            for (int i = upTo; i < buffer.capacity(); i++) {
+                if (buffer.get(i) != 0) {
+                    buffer.put(i, (byte) 0);
+                    tail = i - upTo + 1;
+                }
+            }
+            position = upTo;
+            flushed = 0;
+            buffer.force();
+            flushed = upTo;
+            return tail;
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.academytop.eshop.journal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+/**
+ * Запись локального журнала заказов.
+ * Содержит все данные, необходимые для создания заказа в базе данных при воспроизведении журнала.
+ * Стоимость заказа не журналируется: при воспроизведении она считается по ценам из таблицы {@code products}.
+ */
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderJournalEntry {
+    /**
+     * Уникальный ключ записи. По нему воспроизведение журнала остается идемпотентным.
+     * Совпадает с бизнес-ключом uuid заказа, который создается при воспроизведении.
+     */
+    private UUID journalKey;
+    /**
+     * Идентификатор пользователя, сделавшего заказ.
+     */
+    private Integer userId;
+    /**
+     * Дата и время принятия заказа.
+     */
+    private LocalDateTime createdAt;
+    /**
+     * Идентификаторы товаров заказа.
+     */
+    @Builder.Default
+    private List<Integer> productIds = new ArrayList<>();
+}
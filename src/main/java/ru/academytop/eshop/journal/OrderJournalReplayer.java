@@ -0,0 +1,132 @@
+package ru.academytop.eshop.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.academytop.eshop.cache.OrderHistoryCache;
+import ru.academytop.eshop.repository.OrderJournalRepository;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Периодическая задача воспроизведения локального журнала заказов в базу данных.
+ * <p>
+ * Записи применяются по порядку; после каждой порции позиция сохраняется в контрольной точке журнала.
+ * Если база данных недоступна, проход прерывается и повторяется при следующем запуске с той же позиции.
+ * Повторное применение уже записанного заказа исключено таблицей {@code order_journal_applied}.
+ * </p>
+ * <p>
+ * Запись, которую база данных отвергла из-за нарушения ограничений, не применится и при повторе, поэтому
+ * она переносится в таблицу {@code order_journal_rejected} и учитывается в метрике
+ * {@code eshop.order-journal.rejected}; только после этого воспроизведение продвигается дальше. Такие
+ * записи применяются повторно методом {@link #retryRejected()} после устранения причины отказа.
+ * </p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "eshop.order-journal.enabled", havingValue = "true")
+public class OrderJournalReplayer {
+    private final OrderJournal orderJournal;
+    private final OrderJournalRepository orderJournalRepository;
+    private final OrderHistoryCache orderHistoryCache;
+    private final int batchSize;
+    private final Counter rejected;
+
+    /**
+     * Конструктор задачи воспроизведения журнала.
+     *
+     * @param orderJournal           локальный журнал заказов.
+     * @param orderJournalRepository репозиторий для записи заказов из журнала.
+     * @param orderHistoryCache      кэш истории заказов, сбрасываемый после записи заказа.
+     * @param batchSize              количество записей, читаемых из журнала за один раз.
+     * @param meterRegistry          реестр метрик.
+     */
+    @Autowired
+    public OrderJournalReplayer(OrderJournal orderJournal, OrderJournalRepository orderJournalRepository,
+                                OrderHistoryCache orderHistoryCache,
+                                @Value("${eshop.order-journal.replay-batch-size:500}") int batchSize,
+                                MeterRegistry meterRegistry) {
+        this.orderJournal = orderJournal;
+        this.orderJournalRepository = orderJournalRepository;
+        this.orderHistoryCache = orderHistoryCache;
+        this.batchSize = batchSize;
+        this.rejected = meterRegistry.counter("eshop.order-journal.rejected");
+    }
+
+    /**
+     * Переносит в базу данных все записи журнала, сброшенные на диск к моменту запуска.
+     *
+     * @throws IOException если журнал или контрольную точку не удалось прочитать или сохранить.
+     */
+    @Scheduled(fixedDelayString = "${eshop.order-journal.replay-interval-ms:1000}")
+    public void replay() throws IOException {
+        OrderJournal.Position position = orderJournal.loadCheckpoint();
+        List<OrderJournal.Record> records = orderJournal.read(position, batchSize);
+        while (!records.isEmpty()) {
+            for (OrderJournal.Record record : records) {
+                OrderJournalEntry entry = record.getEntry();
+                try {
+                    applyOrReject(entry);
+                } catch (DataAccessException ex) {
+                    log.warn("Order journal replay paused at segment {} offset {}: {}",
+                            position.getSegment(), position.getOffset(), ex.getMessage());
+                    orderJournal.saveCheckpoint(position);
+                    return;
+                }
+                orderHistoryCache.evict(entry.getUserId());
+                position = record.getNext();
+            }
+            orderJournal.saveCheckpoint(position);
+            records = orderJournal.read(position, batchSize);
+        }
+    }
+
+    /**
+     * Применяет запись журнала; запись, нарушающую ограничения базы данных, сохраняет для оператора
+     * в {@code order_journal_rejected}. Ошибка доступа к базе данных при сохранении отказа прерывает проход,
+     * поэтому позиция журнала не продвигается, пока запись не применена или не сохранена как отвергнутая.
+     *
+     * @param entry запись журнала.
+     */
+    private void applyOrReject(OrderJournalEntry entry) {
+        try {
+            orderJournalRepository.applyIfAbsent(entry);
+        } catch (DataIntegrityViolationException ex) {
+            orderJournalRepository.reject(entry, ex.getMostSpecificCause().getMessage());
+            rejected.increment();
+            log.error("Order journal record {} rejected by the database, moved to order_journal_rejected",
+                    entry.getJournalKey(), ex);
+        }
+    }
+
+    /**
+     * Повторно применяет записи из {@code order_journal_rejected}, например после восстановления удаленного товара.
+     * Записи, которые база данных снова отвергла, остаются в таблице. За один вызов обрабатывается
+     * не более {@code replay-batch-size} записей.
+     *
+     * @return количество успешно примененных записей.
+     */
+    public int retryRejected() {
+        int applied = 0;
+        for (OrderJournalEntry entry : orderJournalRepository.findRejected(batchSize)) {
+            try {
+                orderJournalRepository.applyRejected(entry);
+            } catch (DataIntegrityViolationException ex) {
+                log.warn("Rejected order journal record {} is still rejected: {}",
+                        entry.getJournalKey(), ex.getMostSpecificCause().getMessage());
+                continue;
+            }
+            orderHistoryCache.evict(entry.getUserId());
+            applied++;
+        }
+        return applied;
+    }
+}
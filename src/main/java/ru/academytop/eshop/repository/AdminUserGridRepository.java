@@ -0,0 +1,135 @@
+package ru.academytop.eshop.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import ru.academytop.eshop.dto.AdminUserRowDto;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Репозиторий для постраничного вывода пользователей на странице администратора.
+ * <p>
+ * Возвращает проекцию {@link AdminUserRowDto} вместо сущностей, поэтому заказы пользователей не загружаются.
+ * Количество заказов и их сумма считаются в SQL только для пользователей текущей страницы, если сортировка
+ * выполняется по колонке пользователя. Поиск по префиксу имени или почты использует индексы
+ * {@code lower(...) text_pattern_ops}. Колонки сортировки берутся только из белого списка.
+ * </p>
+ */
+@Repository
+public class AdminUserGridRepository {
+    /**
+     * Допустимые поля сортировки и соответствующие им выражения SQL.
+     */
+    public static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "user_id",
+            "name", "name",
+            "email", "email",
+            "balance", "balance",
+            "orders", "order_count",
+            "spent", "total_spent");
+    private static final String DEFAULT_SORT = "id";
+    private static final String AGGREGATES =
+            "LEFT JOIN LATERAL (SELECT count(*) AS order_count, COALESCE(sum(o.price), 0) AS total_spent "
+                    + "FROM orders o WHERE o.user_id = u.user_id) s ON true "
+                    + "LEFT JOIN roles r ON r.role_id = u.role_id ";
+    private static final String COLUMNS =
+            "SELECT u.user_id, u.name, u.email, u.birth_date, u.balance, r.name AS role_name, "
+                    + "s.order_count, s.total_spent ";
+    private static final RowMapper<AdminUserRowDto> ROW_MAPPER = (rs, rowNum) -> {
+        Date birthDate = rs.getDate("birth_date");
+        return AdminUserRowDto.builder()
+                .userId(rs.getInt("user_id"))
+                .name(rs.getString("name"))
+                .email(rs.getString("email"))
+                .birthDate(birthDate == null ? null : birthDate.toLocalDate())
+                .balance(rs.getBigDecimal("balance"))
+                .roleName(rs.getString("role_name"))
+                .orderCount(rs.getLong("order_count"))
+                .totalSpent(rs.getBigDecimal("total_spent"))
+                .build();
+    };
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Конструктор репозитория таблицы пользователей.
+     *
+     * @param jdbcTemplate шаблон для выполнения запросов.
+     */
+    @Autowired
+    public AdminUserGridRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Возвращает страницу пользователей, отфильтрованных по префиксу имени или электронной почты.
+     *
+     * @param search   префикс имени или почты (без учета регистра); пустая строка отключает поиск.
+     * @param pageable номер и размер страницы, сортировка по одному из полей {@link #SORT_COLUMNS}.
+     * @return страница строк таблицы пользователей.
+     */
+    public Page<AdminUserRowDto> findPage(String search, Pageable pageable) {
+        List<Object> params = new ArrayList<>();
+        String where = "";
+        if (search != null && !search.isBlank()) {
+            String prefix = escapeLike(search.trim().toLowerCase(Locale.ROOT)) + "%";
+            where = "WHERE lower(u.name) LIKE ? OR lower(u.email) LIKE ? ";
+            params.add(prefix);
+            params.add(prefix);
+        }
+        Long total = jdbcTemplate.queryForObject("SELECT count(*) FROM users u " + where, Long.class,
+                params.toArray());
+        if (total == null || total == 0) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc(DEFAULT_SORT));
+        String column = SORT_COLUMNS.getOrDefault(order.getProperty(), SORT_COLUMNS.get(DEFAULT_SORT));
+        String direction = order.isDescending() ? "DESC" : "ASC";
+        String sql;
+        if (column.equals("order_count") || column.equals("total_spent")) {
+            // Сортировка по агрегату: агрегаты нужны для всех найденных пользователей
+            sql = "SELECT * FROM (" + COLUMNS + "FROM users u " + AGGREGATES + where + ") page "
+                    + orderBy("", column, direction) + "LIMIT ? OFFSET ?";
+        } else {
+            // Сортировка по колонке пользователя: сначала выбирается страница, затем агрегаты только для нее
+            sql = COLUMNS + "FROM (SELECT * FROM users u " + where + orderBy("u.", column, direction)
+                    + "LIMIT ? OFFSET ?) u " + AGGREGATES + orderBy("u.", column, direction);
+        }
+        params.add(pageable.getPageSize());
+        params.add(pageable.getOffset());
+        List<AdminUserRowDto> rows = jdbcTemplate.query(sql, ROW_MAPPER, params.toArray());
+        return new PageImpl<>(rows, pageable, total);
+    }
+
+    /**
+     * Формирует выражение ORDER BY с идентификатором пользователя в качестве второго ключа для стабильного порядка.
+     *
+     * @param alias     префикс таблицы (например, {@code "u."}) или пустая строка.
+     * @param column    колонка сортировки из белого списка.
+     * @param direction направление сортировки: ASC или DESC.
+     * @return выражение ORDER BY.
+     */
+    private static String orderBy(String alias, String column, String direction) {
+        return "ORDER BY " + alias + column + " " + direction + " NULLS LAST, "
+                + alias + "user_id " + direction + " ";
+    }
+
+    /**
+     * Экранирует спецсимволы шаблона LIKE.
+     *
+     * @param value строка поиска.
+     * @return строка, в которой символы {@code \ % _} трактуются буквально.
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,91 @@
+package ru.academytop.eshop.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import ru.academytop.eshop.dto.CheckoutResultDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Репозиторий для оформления заказа одним SQL-оператором.
+ * <p>
+ * Идентификаторы товаров корзины передаются одним массивом и разворачиваются через {@code unnest}.
+ * Цепочка CTE проверяет, что все товары существуют, считает стоимость заказа по ценам из таблицы
+ * {@code products}, вставляет заголовок заказа и все его позиции и при необходимости списывает стоимость
+ * с баланса пользователя с записью в {@code balance_ledger}. Оформление заказа занимает один обмен
+ * с базой данных и фиксацию транзакции вне зависимости от количества позиций.
+ * </p>
+ * <p>
+ * Повторы одного товара в корзине сворачиваются в одну позицию с количеством {@code quantity},
+ * поэтому каждая оплаченная единица товара записана в заказе.
+ * </p>
+ */
+@Repository
+public class CheckoutRepository {
+    private static final String CHECKOUT_SQL =
+            "WITH cart AS ("
+                    + "SELECT unnest(?::int[]) AS product_id), "
+                    + "priced AS ("
+                    + "SELECT sum(p.price) AS total, count(p.product_id) AS found, count(*) AS requested "
+                    + "FROM cart c LEFT JOIN products p ON p.product_id = c.product_id), "
+                    + "header AS ("
+                    + "INSERT INTO orders (price, created_at, user_id) "
+                    + "SELECT total, ?, ? FROM priced WHERE requested > 0 AND found = requested "
+                    + "RETURNING order_id, uuid, price, round(price::numeric, 2) AS amount), "
+                    + "lines AS ("
+                    + "INSERT INTO orders_products (order_id, product_id, quantity) "
+                    + "SELECT h.order_id, c.product_id, count(*) FROM header h CROSS JOIN cart c "
+                    + "GROUP BY h.order_id, c.product_id), "
+                    + "debited AS ("
+                    + "UPDATE users u SET balance = u.balance - h.amount FROM header h "
+                    + "WHERE ? AND u.user_id = ? AND u.balance >= h.amount "
+                    + "RETURNING u.user_id, u.name, u.balance, h.order_id, h.amount), "
+                    + "ledger AS ("
+                    + "INSERT INTO balance_ledger (user_id, order_id, amount, balance_after) "
+                    + "SELECT user_id, order_id, -amount, balance FROM debited) "
+                    + "SELECT h.order_id, h.uuid, h.price, d.name AS debited_user_name "
+                    + "FROM header h LEFT JOIN debited d ON d.order_id = h.order_id";
+    private static final RowMapper<CheckoutResultDto> CHECKOUT_RESULT_MAPPER = (rs, rowNum) ->
+            CheckoutResultDto.builder()
+                    .orderId(rs.getInt("order_id"))
+                    .uuid(rs.getObject("uuid", UUID.class))
+                    .price(rs.getBigDecimal("price"))
+                    .debitedUserName(rs.getString("debited_user_name"))
+                    .build();
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Конструктор репозитория оформления заказов.
+     *
+     * @param jdbcTemplate шаблон для выполнения запросов.
+     */
+    @Autowired
+    public CheckoutRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Создает заказ со всеми позициями одним оператором.
+     * <p>
+     * Если списание с баланса запрошено, но средств недостаточно, заказ все равно вставляется, а поле
+     * {@link CheckoutResultDto#getDebitedUserName()} остается пустым: вызывающий код должен откатить транзакцию.
+     * </p>
+     *
+     * @param userId         идентификатор пользователя, который создает заказ.
+     * @param productIds     идентификаторы товаров корзины (повторы учитываются в стоимости и в количестве позиции).
+     * @param createdAt      дата и время создания заказа.
+     * @param payFromBalance списывать ли стоимость заказа с баланса пользователя.
+     * @return результат оформления или null, если корзина пуста или часть товаров больше не существует.
+     */
+    public CheckoutResultDto placeOrder(Integer userId, List<Integer> productIds, LocalDateTime createdAt,
+                                        boolean payFromBalance) {
+        List<CheckoutResultDto> results = jdbcTemplate.query(CHECKOUT_SQL, CHECKOUT_RESULT_MAPPER,
+                productIds.toArray(new Integer[0]), Timestamp.valueOf(createdAt), userId, payFromBalance, userId);
+        return results.isEmpty() ? null : results.get(0);
+    }
+}
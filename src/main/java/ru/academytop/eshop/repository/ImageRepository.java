@@ -1,9 +1,14 @@
 package ru.academytop.eshop.repository;
 
+import ru.academytop.eshop.dto.ImageDto;
 import ru.academytop.eshop.entity.Image;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 /**
  * Репозиторий для управления сущностями {@link Image}.
@@ -27,4 +32,17 @@ public interface ImageRepository extends JpaRepository<Image, Integer> {
      */
     Optional<Image> findImageByProductId(Integer imageId);
 
+    /**
+     * Находит ссылки на изображения нескольких продуктов одним запросом.
+     * <p>
+     * Возвращаются только идентификатор и ссылка, без загрузки сущностей {@link Image} и связанных продуктов.
+     * </p>
+     *
+     * @param productIds идентификаторы продуктов.
+     * @return список ссылок; продукты без изображения в список не попадают.
+     */
+    @Query("SELECT new ru.academytop.eshop.dto.ImageDto(i.productId, i.link) FROM Image i "
+            + "WHERE i.productId IN :productIds")
+    List<ImageDto> findLinksByProductIdIn(@Param("productIds") Collection<? extends Integer> productIds);
+
 }
@@ -0,0 +1,69 @@
+package ru.academytop.eshop.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Репозиторий для потоковой выгрузки заказов и их позиций.
+ * <p>
+ * Читает строки через однонаправленный курсор с ограниченным размером выборки (fetch size), поэтому
+ * в памяти одновременно находится только одна порция строк, независимо от количества заказов.
+ * Курсор PostgreSQL работает только внутри транзакции, поэтому методы этого репозитория
+ * должны вызываться из транзакционного сервиса.
+ * </p>
+ */
+@Repository
+public class OrderExportRepository {
+    private static final String SELECT_ORDER_LINES =
+            "SELECT o.order_id, o.created_at, o.user_id, o.price, op.product_id, op.quantity "
+                    + "FROM orders o "
+                    + "LEFT JOIN orders_products op ON op.order_id = o.order_id "
+                    + "WHERE o.created_at >= ? AND o.created_at < ? "
+                    + "ORDER BY o.order_id, op.product_id";
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    /**
+     * Конструктор репозитория выгрузки заказов.
+     *
+     * @param jdbcTemplate шаблон для выполнения запросов.
+     * @param fetchSize    количество строк, получаемых из базы данных за одно обращение к курсору.
+     */
+    @Autowired
+    public OrderExportRepository(JdbcTemplate jdbcTemplate,
+                                 @Value("${eshop.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Передает обработчику позиции заказов, созданных в указанном интервале, упорядоченные по идентификатору заказа.
+     * <p>
+     * Каждая строка содержит колонки {@code order_id, created_at, user_id, price, product_id, quantity}. Заказ без позиций
+     * представлен одной строкой с {@code product_id} и {@code quantity}, равными null. Условие по {@code created_at}
+     * позволяет PostgreSQL читать только нужные партиции.
+     * </p>
+     *
+     * @param from    начало интервала (включительно).
+     * @param to      конец интервала (не включительно).
+     * @param handler обработчик, вызываемый для каждой строки.
+     */
+    public void streamOrderLines(LocalDateTime from, LocalDateTime to, RowCallbackHandler handler) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ORDER_LINES,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setTimestamp(2, Timestamp.valueOf(to));
+            return statement;
+        }, handler);
+    }
+}
@@ -0,0 +1,137 @@
+package ru.academytop.eshop.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.academytop.eshop.journal.OrderJournalEntry;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Репозиторий для воспроизведения записей локального журнала заказов в базу данных.
+ * <p>
+ * Ключ каждой примененной записи сохраняется в таблице {@code order_journal_applied} в той же транзакции,
+ * что и сам заказ, поэтому повторное воспроизведение записи (например, после перезапуска до сохранения
+ * контрольной точки) не создает дубликат заказа.
+ * </p>
+ * <p>
+ * Записи, которые база данных отвергла из-за нарушения ограничений, сохраняются в таблице
+ * {@code order_journal_rejected}, откуда их можно применить повторно после устранения причины.
+ * </p>
+ */
+@Repository
+public class OrderJournalRepository {
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (uuid, price, created_at, user_id) "
+                    + "SELECT ?, sum(p.price), ?, ? "
+                    + "FROM unnest(?::int[]) AS c(product_id) LEFT JOIN products p ON p.product_id = c.product_id "
+                    + "RETURNING order_id";
+    private static final RowMapper<OrderJournalEntry> REJECTED_MAPPER = (rs, rowNum) -> {
+        Array productIds = rs.getArray("product_ids");
+        return OrderJournalEntry.builder()
+                .journalKey(rs.getObject("journal_key", UUID.class))
+                .userId(rs.getInt("user_id"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .productIds(Arrays.asList((Integer[]) productIds.getArray()))
+                .build();
+    };
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Конструктор репозитория журнала заказов.
+     *
+     * @param jdbcTemplate шаблон для выполнения запросов.
+     */
+    @Autowired
+    public OrderJournalRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Создает заказ и его позиции по записи журнала, если эта запись еще не применялась.
+     * <p>
+     * Стоимость заказа считается по текущим ценам из таблицы {@code products}, как при оформлении заказа
+     * через {@link CheckoutRepository}. Если товар заказа больше не существует, вставка позиций нарушает
+     * внешний ключ, и запись отвергается.
+     * </p>
+     *
+     * @param entry запись журнала.
+     * @return идентификатор созданного заказа или null, если запись уже была применена ранее.
+     */
+    @Transactional
+    public Integer applyIfAbsent(OrderJournalEntry entry) {
+        int claimed = jdbcTemplate.update(
+                "INSERT INTO order_journal_applied (journal_key) VALUES (?) ON CONFLICT DO NOTHING",
+                entry.getJournalKey());
+        if (claimed == 0) {
+            return null;
+        }
+        Integer orderId = jdbcTemplate.queryForObject(INSERT_ORDER_SQL, Integer.class,
+                entry.getJournalKey(), Timestamp.valueOf(entry.getCreatedAt()), entry.getUserId(),
+                entry.getProductIds().toArray(new Integer[0]));
+        // Повторы одного товара сворачиваются в одну позицию с количеством, как при оформлении заказа
+        Map<Integer, Long> quantities = entry.getProductIds().stream()
+                .collect(Collectors.groupingBy(Function.identity(), LinkedHashMap::new, Collectors.counting()));
+        List<Object[]> lines = quantities.entrySet().stream()
+                .map(line -> new Object[]{orderId, line.getKey(), line.getValue().intValue()})
+                .toList();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO orders_products (order_id, product_id, quantity) VALUES (?, ?, ?) ON CONFLICT DO NOTHING",
+                lines);
+        jdbcTemplate.update("UPDATE order_journal_applied SET order_id = ? WHERE journal_key = ?",
+                orderId, entry.getJournalKey());
+        return orderId;
+    }
+
+    /**
+     * Сохраняет запись журнала, отвергнутую базой данных, в таблицу {@code order_journal_rejected}.
+     * Повторное сохранение той же записи (например, после перезапуска до контрольной точки) ничего не меняет.
+     *
+     * @param entry  запись журнала.
+     * @param reason причина отказа.
+     */
+    public void reject(OrderJournalEntry entry, String reason) {
+        jdbcTemplate.update(
+                "INSERT INTO order_journal_rejected (journal_key, user_id, created_at, product_ids, reason) "
+                        + "VALUES (?, ?, ?, ?::int[], ?) ON CONFLICT (journal_key) DO NOTHING",
+                entry.getJournalKey(), entry.getUserId(), Timestamp.valueOf(entry.getCreatedAt()),
+                entry.getProductIds().toArray(new Integer[0]), reason);
+    }
+
+    /**
+     * Возвращает отвергнутые записи журнала в порядке их отказа.
+     *
+     * @param limit максимальное количество записей.
+     * @return отвергнутые записи.
+     */
+    public List<OrderJournalEntry> findRejected(int limit) {
+        return jdbcTemplate.query(
+                "SELECT journal_key, user_id, created_at, product_ids FROM order_journal_rejected "
+                        + "ORDER BY rejected_at, journal_key LIMIT ?",
+                REJECTED_MAPPER, limit);
+    }
+
+    /**
+     * Повторно применяет отвергнутую запись и в той же транзакции удаляет ее из {@code order_journal_rejected}.
+     * Если база данных снова отвергнет запись, транзакция откатывается и запись остается отвергнутой.
+     *
+     * @param entry отвергнутая запись журнала.
+     * @return идентификатор созданного заказа или null, если запись уже была применена ранее.
+     */
+    @Transactional
+    public Integer applyRejected(OrderJournalEntry entry) {
+        Integer orderId = applyIfAbsent(entry);
+        jdbcTemplate.update("DELETE FROM order_journal_rejected WHERE journal_key = ?", entry.getJournalKey());
+        return orderId;
+    }
+}
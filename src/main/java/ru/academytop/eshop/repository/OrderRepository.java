@@ -2,6 +2,7 @@ package ru.academytop.eshop.repository;
 
 import ru.academytop.eshop.entity.Order;
 import ru.academytop.eshop.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.List;
@@ -30,11 +31,13 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
      * <p>
      * Этот метод выполняет поиск заказа по уникальному идентификатору заказа.
      * Он возвращает заказ, если он найден, или `null`, если заказ с таким идентификатором не существует.
+     * Товары заказа и их изображения загружаются тем же запросом (граф {@link Order#WITH_PRODUCT_IMAGES}).
      * </p>
      *
      * @param id уникальный идентификатор заказа.
      * @return объект {@link Order} с указанным идентификатором, или `null`, если заказ не найден.
      */
+    @EntityGraph(Order.WITH_PRODUCT_IMAGES)
     Order findByOrderId(Integer id);
 
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package ru.academytop.eshop.repository;
 import ru.academytop.eshop.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -17,6 +18,10 @@ import java.util.Set;
  * и выполнения запросов к базе данных для сущностей {@link Product}. Он наследуется от {@link JpaRepository},
  * что обеспечивает базовую функциональность для работы с сущностями JPA.
  * </p>
+ * <p>
+ * Методы, результаты которых отображаются карточками товаров, загружают изображения тем же запросом
+ * по графу {@link Product#WITH_IMAGE}; остальные связи товара загружаются лениво пакетами.
+ * </p>
  */
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Integer> {
@@ -41,6 +46,7 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
      * @param categoryId идентификатор категории, к которой принадлежат продукты.
      * @return список {@link Product} для указанной категории.
      */
+    @EntityGraph(Product.WITH_IMAGE)
     @Query("SELECT p FROM Product p WHERE p.category.categoryId =:categoryId")
     List<Product> findProductsByCategoryId(Integer categoryId);
     /**
@@ -65,6 +71,7 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
      * @param productId уникальный идентификатор продукта.
      * @return {@link Optional<Product>} с найденным продуктом или пустой, если продукт не найден.
      */
+    @EntityGraph(Product.WITH_IMAGE)
     Optional<Product> findProductByProductId(Integer productId);
     /**
      * Находит все продукты, принадлежащие указанной категории, с поддержкой постраничного вывода.
@@ -78,5 +85,13 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
      * @return объект {@link Page<Product>} с найденными продуктами и информацией о постраничном выводе.
      */
     Page<Product> findAllByCategory_CategoryId(Integer categoryId, Pageable pageable);
-
+    /**
+     * Находит продукт по идентификатору вместе с его изображением.
+     *
+     * @param productId уникальный идентификатор продукта.
+     * @return {@link Optional<Product>} с найденным продуктом или пустой, если продукт не найден.
+     */
+    @Override
+    @EntityGraph(Product.WITH_IMAGE)
+    Optional<Product> findById(Integer productId);
 }
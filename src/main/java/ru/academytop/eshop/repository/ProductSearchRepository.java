@@ -0,0 +1,71 @@
+package ru.academytop.eshop.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Репозиторий для потокового поиска продуктов по названию и описанию.
+ * <p>
+ * Читает карточки продуктов вместе со ссылками на изображения одним запросом через однонаправленный курсор
+ * с ограниченным размером выборки, поэтому первая строка доступна сразу, а в памяти находится только
+ * одна порция строк, независимо от количества найденных продуктов. Курсор PostgreSQL работает только внутри
+ * транзакции, поэтому методы этого репозитория должны вызываться из транзакционного сервиса.
+ * </p>
+ */
+@Repository
+public class ProductSearchRepository {
+    private static final String SELECT_CARDS =
+            "SELECT p.product_id, p.name, p.description, p.price, i.link "
+                    + "FROM products p "
+                    + "LEFT JOIN images i ON i.image_id = p.product_id "
+                    + "WHERE p.name ILIKE ? OR p.description ILIKE ? "
+                    + "ORDER BY p.product_id";
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    /**
+     * Конструктор репозитория поиска продуктов.
+     *
+     * @param jdbcTemplate шаблон для выполнения запросов.
+     * @param fetchSize    количество строк, получаемых из базы данных за одно обращение к курсору.
+     */
+    @Autowired
+    public ProductSearchRepository(JdbcTemplate jdbcTemplate,
+                                   @Value("${eshop.search.fetch-size:200}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Передает обработчику продукты, название или описание которых содержит ключ поиска без учета регистра,
+     * упорядоченные по идентификатору.
+     * <p>
+     * Каждая строка содержит колонки {@code product_id, name, description, price, link}; {@code link} равен null
+     * для продукта без изображения. Символы {@code %} и {@code _} в ключе ищутся как обычные символы.
+     * </p>
+     *
+     * @param searchKey ключ поиска.
+     * @param handler   обработчик, вызываемый для каждой строки.
+     */
+    public void streamCards(String searchKey, RowCallbackHandler handler) {
+        String pattern = "%" + escapeLike(searchKey) + "%";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_CARDS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setString(1, pattern);
+            statement.setString(2, pattern);
+            return statement;
+        }, handler);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,165 @@
+package ru.academytop.eshop.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import ru.academytop.eshop.dto.DailySalesDto;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Репозиторий для дневных сводок продаж.
+ * <p>
+ * Сводки хранятся в таблицах {@code sales_daily_products} и {@code sales_daily_categories} и пополняются
+ * инкрементально: каждый проход добавляет только заказы с идентификатором больше сохраненной
+ * отметки {@code sales_rollup_state.last_order_id}. Методы чтения обращаются только к таблицам сводок
+ * и справочникам, но никогда к {@code orders} и {@code orders_products}.
+ * </p>
+ */
+@Repository
+public class SalesRollupRepository {
+    private static final String ROLLUP_NAME = "daily_sales";
+    private static final RowMapper<DailySalesDto> DAILY_SALES_MAPPER = (rs, rowNum) -> {
+        Date salesDate = rs.getDate("sales_date");
+        return DailySalesDto.builder()
+                .salesDate(salesDate == null ? null : salesDate.toLocalDate())
+                .id(rs.getInt("id"))
+                .name(rs.getString("name"))
+                .units(rs.getLong("units"))
+                .revenue(rs.getBigDecimal("revenue"))
+                .build();
+    };
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Конструктор репозитория сводок продаж.
+     *
+     * @param jdbcTemplate шаблон для выполнения запросов.
+     */
+    @Autowired
+    public SalesRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Возвращает отметку последнего обработанного заказа и блокирует ее до конца транзакции,
+     * чтобы два экземпляра приложения не обработали одни и те же заказы.
+     *
+     * @return идентификатор последнего заказа, уже учтенного в сводках.
+     */
+    public int lockHighWaterMark() {
+        Integer lastOrderId = jdbcTemplate.queryForObject(
+                "SELECT last_order_id FROM sales_rollup_state WHERE rollup_name = ? FOR UPDATE",
+                Integer.class, ROLLUP_NAME);
+        return lastOrderId == null ? 0 : lastOrderId;
+    }
+
+    /**
+     * Находит верхнюю границу очередной порции заказов.
+     * <p>
+     * Учитываются только заказы, записанные в базу данных более {@code safetyLagSeconds} секунд назад:
+     * идентификаторы выдаются последовательностью до фиксации транзакции, и более свежий заказ с меньшим
+     * идентификатором мог еще не стать видимым. Возраст считается по {@code inserted_at}, который назначает
+     * база данных при вставке, а не по {@code created_at}: у заказа, воспроизведенного из локального журнала,
+     * {@code created_at} остается временем приема заказа, хотя идентификатор он получает новый.
+     * </p>
+     *
+     * @param lastOrderId      отметка последнего обработанного заказа.
+     * @param safetyLagSeconds минимальный возраст заказа в секундах.
+     * @return идентификатор последнего заказа порции или null, если новых заказов нет.
+     */
+    public Integer findUpperBound(int lastOrderId, int safetyLagSeconds) {
+        return jdbcTemplate.queryForObject(
+                "SELECT max(order_id) FROM orders "
+                        + "WHERE order_id > ? AND inserted_at < LOCALTIMESTAMP - make_interval(secs => ?)",
+                Integer.class, lastOrderId, safetyLagSeconds);
+    }
+
+    /**
+     * Добавляет в сводки заказы с идентификаторами в интервале {@code (fromOrderId, toOrderId]}.
+     * <p>
+     * Позиции заказа не хранят цену, поэтому выручка считается по текущей цене товара.
+     * </p>
+     *
+     * @param fromOrderId отметка последнего обработанного заказа (не включительно).
+     * @param toOrderId   последний заказ порции (включительно).
+     */
+    public void addOrders(int fromOrderId, int toOrderId) {
+        jdbcTemplate.update(
+                "INSERT INTO sales_daily_products (sales_date, product_id, units, revenue) "
+                        + "SELECT o.created_at::date, op.product_id, sum(op.quantity), sum(p.price * op.quantity) "
+                        + "FROM orders o "
+                        + "JOIN orders_products op ON op.order_id = o.order_id "
+                        + "JOIN products p ON p.product_id = op.product_id "
+                        + "WHERE o.order_id > ? AND o.order_id <= ? "
+                        + "GROUP BY o.created_at::date, op.product_id "
+                        + "ON CONFLICT (sales_date, product_id) DO UPDATE "
+                        + "SET units = sales_daily_products.units + EXCLUDED.units, "
+                        + "revenue = sales_daily_products.revenue + EXCLUDED.revenue",
+                fromOrderId, toOrderId);
+        jdbcTemplate.update(
+                "INSERT INTO sales_daily_categories (sales_date, category_id, units, revenue) "
+                        + "SELECT o.created_at::date, p.category_id, sum(op.quantity), sum(p.price * op.quantity) "
+                        + "FROM orders o "
+                        + "JOIN orders_products op ON op.order_id = o.order_id "
+                        + "JOIN products p ON p.product_id = op.product_id "
+                        + "WHERE o.order_id > ? AND o.order_id <= ? "
+                        + "GROUP BY o.created_at::date, p.category_id "
+                        + "ON CONFLICT (sales_date, category_id) DO UPDATE "
+                        + "SET units = sales_daily_categories.units + EXCLUDED.units, "
+                        + "revenue = sales_daily_categories.revenue + EXCLUDED.revenue",
+                fromOrderId, toOrderId);
+    }
+
+    /**
+     * Сохраняет новую отметку последнего обработанного заказа.
+     *
+     * @param lastOrderId идентификатор последнего учтенного заказа.
+     */
+    public void updateHighWaterMark(int lastOrderId) {
+        jdbcTemplate.update(
+                "UPDATE sales_rollup_state SET last_order_id = ?, updated_at = LOCALTIMESTAMP WHERE rollup_name = ?",
+                lastOrderId, ROLLUP_NAME);
+    }
+
+    /**
+     * Возвращает дневные продажи по категориям за период, начиная с последних дней.
+     *
+     * @param from первый день периода (включительно).
+     * @param to   последний день периода (включительно).
+     * @return список строк сводки по категориям.
+     */
+    public List<DailySalesDto> findDailyCategorySales(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+                "SELECT s.sales_date, s.category_id AS id, c.name, s.units, s.revenue "
+                        + "FROM sales_daily_categories s "
+                        + "JOIN categories c ON c.category_id = s.category_id "
+                        + "WHERE s.sales_date BETWEEN ? AND ? "
+                        + "ORDER BY s.sales_date DESC, s.revenue DESC",
+                DAILY_SALES_MAPPER, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Возвращает товары с наибольшей выручкой за период.
+     *
+     * @param from  первый день периода (включительно).
+     * @param to    последний день периода (включительно).
+     * @param limit максимальное количество товаров.
+     * @return список строк сводки по товарам без даты.
+     */
+    public List<DailySalesDto> findTopProducts(LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query(
+                "SELECT NULL::date AS sales_date, s.product_id AS id, p.name, "
+                        + "sum(s.units) AS units, sum(s.revenue) AS revenue "
+                        + "FROM sales_daily_products s "
+                        + "JOIN products p ON p.product_id = s.product_id "
+                        + "WHERE s.sales_date BETWEEN ? AND ? "
+                        + "GROUP BY s.product_id, p.name "
+                        + "ORDER BY revenue DESC "
+                        + "LIMIT ?",
+                DAILY_SALES_MAPPER, Date.valueOf(from), Date.valueOf(to), limit);
+    }
+}
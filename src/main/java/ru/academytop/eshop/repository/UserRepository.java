@@ -1,7 +1,11 @@
 package ru.academytop.eshop.repository;
 
+import ru.academytop.eshop.dto.UserAuthDto;
 import ru.academytop.eshop.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -26,6 +30,19 @@ public interface UserRepository extends JpaRepository<User, Integer> {
      * @return {@link Optional<User>} содержащий найденного пользователя или пустой Optional, если пользователь не найден.
      */
     Optional<User> findByName(String name);
+    /**
+     * Находит данные пользователя, необходимые для аутентификации, по его имени.
+     * <p>
+     * Запрос выбирает только колонки пользователя и название роли, не загружая заказы пользователя,
+     * поэтому стоимость входа не зависит от количества заказов.
+     * </p>
+     *
+     * @param name имя пользователя.
+     * @return {@link Optional<UserAuthDto>} с данными пользователя или пустой Optional, если пользователь не найден.
+     */
+    @Query("SELECT new ru.academytop.eshop.dto.UserAuthDto(u.userId, u.name, u.password, u.email, u.birthDate, "
+            + "u.balance, r.name) FROM User u JOIN u.role r WHERE u.name = :name")
+    Optional<UserAuthDto> findAuthByName(@Param("name") String name);
     /**
      * Находит пользователя по имени и паролю.
      * <p>
@@ -60,4 +77,28 @@ public interface UserRepository extends JpaRepository<User, Integer> {
      * @return true, если пользователь с такой электронной почтой существует, false в противном случае.
      */
     boolean existsByEmail(String email);
+    /**
+     * Проверяет существует ли пользователь с указанным именем.
+     * <p>
+     * Этот метод возвращает true, если пользователь с таким именем существует,
+     * и false, если не существует.
+     * </p>
+     *
+     * @param name имя пользователя.
+     * @return true, если пользователь с таким именем существует, false в противном случае.
+     */
+    boolean existsByName(String name);
+    /**
+     * Заменяет хэш пароля пользователя.
+     * <p>
+     * Используется для перехэширования пароля с новыми параметрами при успешном входе.
+     * </p>
+     *
+     * @param name     имя пользователя.
+     * @param password новый хэш пароля.
+     * @return количество измененных строк.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.name = :name")
+    int updatePassword(@Param("name") String name, @Param("password") String password);
 }
@@ -0,0 +1,153 @@
+package ru.academytop.eshop.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import ru.academytop.eshop.exceptions.PasswordHashingRejectedException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Кодировщик паролей, выполняющий хэширование и проверку паролей в отдельном ограниченном пуле потоков.
+ * <p>
+ * Количество одновременно вычисляемых хэшей ограничено размером пула, а число ожидающих задач - размером очереди.
+ * Если очередь заполнена или задача не выполнена за {@code waitMillis} миллисекунд, сразу выбрасывается
+ * {@link PasswordHashingRejectedException}: поток Tomcat освобождается, а не ждет своей очереди, и всплеск входов
+ * не отнимает потоки у просмотра каталога.
+ * </p>
+ * <p>
+ * Метрики: {@code eshop.password.queue.depth} и {@code eshop.password.active} - глубина очереди и число занятых
+ * потоков, {@code eshop.password.hash} - время хэширования (тег {@code operation}: encode или matches),
+ * {@code eshop.password.rejected} - количество отказов.
+ * </p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long waitMillis;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    /**
+     * Конструктор ограниченного кодировщика паролей.
+     *
+     * @param delegate      кодировщик, выполняющий хэширование.
+     * @param threads       количество потоков пула.
+     * @param queueCapacity максимальное количество ожидающих задач.
+     * @param waitMillis    максимальное время ожидания результата в миллисекундах.
+     * @param meterRegistry реестр метрик.
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long waitMillis,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.waitMillis = waitMillis;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("eshop.password.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("eshop.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing threads busy")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("eshop.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("eshop.password.hash").tag("operation", "matches").register(meterRegistry);
+        this.rejected = Counter.builder("eshop.password.rejected").register(meterRegistry);
+    }
+
+    /**
+     * Хэширует пароль в пуле потоков.
+     *
+     * @param rawPassword пароль в открытом виде.
+     * @return хэш пароля.
+     * @throws PasswordHashingRejectedException если пул перегружен.
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    /**
+     * Проверяет пароль в пуле потоков.
+     *
+     * @param rawPassword     пароль в открытом виде.
+     * @param encodedPassword сохраненный хэш пароля.
+     * @return true, если пароль совпадает с хэшем.
+     * @throws PasswordHashingRejectedException если пул перегружен.
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    /**
+     * Проверяет, нужно ли перехэшировать пароль. Выполняется в вызывающем потоке, так как не вычисляет хэш.
+     *
+     * @param encodedPassword сохраненный хэш пароля.
+     * @return true, если хэш создан с устаревшими параметрами.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Останавливает пул потоков при закрытии контекста приложения.
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Выполняет задачу в пуле и ждет результат не дольше {@code waitMillis}.
+     *
+     * @param task  задача хэширования.
+     * @param timer таймер для учета времени выполнения.
+     * @param <T>   тип результата.
+     * @return результат задачи.
+     */
+    private <T> T execute(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing queue is full");
+        }
+        try {
+            return future.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            rejected.increment();
+            throw new PasswordHashingRejectedException("Password hashing timed out");
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Password hashing interrupted");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.academytop.eshop.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Хранилище токенов remember-me с кэшем по идентификатору серии.
+ * <p>
+ * Токены хранятся в таблице {@code persistent_logins} через делегата (обычно
+ * {@link org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl}). Чтение серии
+ * обслуживается из кэша Caffeine; при промахе выполняется один запрос по первичному ключу. Создание, обновление
+ * и удаление токенов записываются в базу данных и сразу отражаются в кэше, поэтому кэш не возвращает
+ * устаревший токен. Статистика публикуется в Micrometer под именем {@code rememberMeTokens}.
+ * </p>
+ * <p>
+ * Кэш локален для экземпляра приложения: если токен обновил другой экземпляр, здесь до истечения TTL останется
+ * старое значение, и Spring Security сочтет cookie украденным. При нескольких экземплярах без привязки сессий
+ * к экземпляру TTL следует установить в 0, что отключает кэш.
+ * </p>
+ */
+public class CachingPersistentTokenRepository implements PersistentTokenRepository {
+    private final PersistentTokenRepository delegate;
+    private final Cache<String, PersistentRememberMeToken> cache;
+
+    /**
+     * Конструктор хранилища токенов.
+     *
+     * @param delegate      хранилище токенов в базе данных.
+     * @param ttl           время жизни записи кэша.
+     * @param maxSize       максимальное количество серий в кэше.
+     * @param meterRegistry реестр метрик.
+     */
+    public CachingPersistentTokenRepository(PersistentTokenRepository delegate, Duration ttl, long maxSize,
+                                            MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "rememberMeTokens");
+    }
+
+    @Override
+    public void createNewToken(PersistentRememberMeToken token) {
+        delegate.createNewToken(token);
+        cache.put(token.getSeries(), token);
+    }
+
+    @Override
+    public void updateToken(String series, String tokenValue, Date lastUsed) {
+        delegate.updateToken(series, tokenValue, lastUsed);
+        PersistentRememberMeToken current = cache.getIfPresent(series);
+        if (current != null) {
+            cache.put(series, new PersistentRememberMeToken(current.getUsername(), series, tokenValue, lastUsed));
+        } else {
+            cache.invalidate(series);
+        }
+    }
+
+    @Override
+    public PersistentRememberMeToken getTokenForSeries(String seriesId) {
+        // Caffeine не кэширует null, поэтому несуществующая серия каждый раз проверяется в базе данных
+        return cache.get(seriesId, delegate::getTokenForSeries);
+    }
+
+    @Override
+    public void removeUserTokens(String username) {
+        delegate.removeUserTokens(username);
+        cache.asMap().values().removeIf(token -> token.getUsername().equals(username));
+    }
+}
@@ -0,0 +1,132 @@
+package ru.academytop.eshop.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр, ограничивающий частоту попыток входа и регистрации.
+ * <p>
+ * Для POST-запросов на {@code /login} и {@code /users/registrate} берется токен из корзины IP-адреса клиента
+ * и из корзины имени пользователя ({@link TokenBucket}). Если хотя бы одна корзина пуста, запрос отклоняется
+ * с кодом 429 и заголовком Retry-After до цепочки Spring Security, то есть без вычисления bcrypt.
+ * Корзины хранятся в кэшах Caffeine с удалением после периода неактивности, поэтому память ограничена
+ * и при атаке с большого числа адресов.
+ * </p>
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+    private static final String LOGIN_PATH = "/login";
+    private static final String REGISTRATION_PATH = "/users/registrate";
+    private final Limit ipLimit;
+    private final Limit accountLimit;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final Cache<String, TokenBucket> accountBuckets;
+    private final Counter rejectedByIp;
+    private final Counter rejectedByAccount;
+
+    /**
+     * Конструктор фильтра.
+     *
+     * @param ipLimit       ограничение для одного IP-адреса.
+     * @param accountLimit  ограничение для одного имени пользователя.
+     * @param idleTimeout   время неактивности, после которого корзина удаляется.
+     * @param maxKeys       максимальное количество корзин каждого вида.
+     * @param meterRegistry реестр метрик.
+     */
+    public LoginRateLimitFilter(Limit ipLimit, Limit accountLimit, Duration idleTimeout, long maxKeys,
+                                MeterRegistry meterRegistry) {
+        this.ipLimit = ipLimit;
+        this.accountLimit = accountLimit;
+        this.ipBuckets = Caffeine.newBuilder().expireAfterAccess(idleTimeout).maximumSize(maxKeys).build();
+        this.accountBuckets = Caffeine.newBuilder().expireAfterAccess(idleTimeout).maximumSize(maxKeys).build();
+        this.rejectedByIp = Counter.builder("eshop.login.rate-limited").tag("key", "ip").register(meterRegistry);
+        this.rejectedByAccount = Counter.builder("eshop.login.rate-limited").tag("key", "account")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String path = path(request);
+        return !LOGIN_PATH.equals(path) && !REGISTRATION_PATH.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+        long wait = acquire(ipBuckets, request.getRemoteAddr(), ipLimit, now);
+        if (wait > 0) {
+            rejectedByIp.increment();
+            reject(response, wait);
+            return;
+        }
+        String account = request.getParameter(LOGIN_PATH.equals(path(request)) ? "username" : "name");
+        if (account != null && !account.isBlank()) {
+            wait = acquire(accountBuckets, account.trim().toLowerCase(Locale.ROOT), accountLimit, now);
+            if (wait > 0) {
+                rejectedByAccount.increment();
+                reject(response, wait);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static long acquire(Cache<String, TokenBucket> buckets, String key, Limit limit, long now) {
+        return buckets.get(key, k -> new TokenBucket(limit.intervalNanos(), limit.burst(), now)).tryAcquire(now);
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Too many attempts, please retry later");
+    }
+
+    /**
+     * Параметры ограничения: емкость корзины и количество попыток в минуту.
+     */
+    public static final class Limit {
+        private final int burst;
+        private final int perMinute;
+
+        /**
+         * Конструктор параметров ограничения.
+         *
+         * @param burst     количество попыток, допустимых подряд.
+         * @param perMinute устойчивая частота попыток в минуту.
+         */
+        public Limit(int burst, int perMinute) {
+            this.burst = burst;
+            this.perMinute = perMinute;
+        }
+
+        int burst() {
+            return burst;
+        }
+
+        long intervalNanos() {
+            return TimeUnit.MINUTES.toNanos(1) / Math.max(perMinute, 1);
+        }
+    }
+}
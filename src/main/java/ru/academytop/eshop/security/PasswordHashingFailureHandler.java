@@ -0,0 +1,45 @@
+package ru.academytop.eshop.security;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+import ru.academytop.eshop.exceptions.PasswordHashingRejectedException;
+
+import java.io.IOException;
+
+/**
+ * Обработчик неудачного входа в систему.
+ * <p>
+ * Если проверка пароля отклонена из-за перегрузки пула хэширования, возвращает 503 Service Unavailable
+ * с заголовком Retry-After. В остальных случаях перенаправляет на страницу входа с параметром error.
+ * </p>
+ */
+public class PasswordHashingFailureHandler extends SimpleUrlAuthenticationFailureHandler {
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    /**
+     * Конструктор обработчика.
+     *
+     * @param failureUrl адрес перенаправления при неверных учетных данных.
+     */
+    public PasswordHashingFailureHandler(String failureUrl) {
+        super(failureUrl);
+    }
+
+    @Override
+    public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+                                        AuthenticationException exception) throws IOException, ServletException {
+        if (exception instanceof PasswordHashingRejectedException) {
+            // Ответ пишется напрямую: перенаправление на /error потребовало бы аутентификации
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Login is temporarily unavailable, please retry");
+            return;
+        }
+        super.onAuthenticationFailure(request, response, exception);
+    }
+}
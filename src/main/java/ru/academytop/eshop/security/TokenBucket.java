@@ -0,0 +1,50 @@
+package ru.academytop.eshop.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов, реализованная алгоритмом GCRA (generic cell rate algorithm).
+ * <p>
+ * Состояние корзины - одно значение теоретического времени прибытия (TAT) в {@link AtomicLong}; попытка
+ * обновляется через compare-and-set без блокировок. Корзина пропускает до {@code burst} запросов подряд,
+ * после чего - не чаще одного запроса за {@code intervalNanos}.
+ * </p>
+ */
+public class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * Конструктор корзины.
+     *
+     * @param intervalNanos интервал восстановления одного токена в наносекундах.
+     * @param burst         емкость корзины (количество запросов, допустимых подряд).
+     * @param nowNanos      текущее время в наносекундах.
+     */
+    public TokenBucket(long intervalNanos, int burst, long nowNanos) {
+        this.intervalNanos = intervalNanos;
+        this.toleranceNanos = intervalNanos * (Math.max(burst, 1) - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Пытается взять токен из корзины.
+     *
+     * @param nowNanos текущее время в наносекундах (по {@link System#nanoTime()}).
+     * @return 0, если токен получен; иначе время в наносекундах до появления следующего токена.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = Math.max(tat, nowNanos);
+            long wait = base - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.academytop.eshop.service;
 
+import ru.academytop.eshop.dto.CategoryDto;
 import ru.academytop.eshop.entity.Category;
 import ru.academytop.eshop.entity.Product;
 import ru.academytop.eshop.entity.User;
@@ -18,12 +19,12 @@ public interface CategoryService {
     /**
      * Находит все категории товаров.
      * <p>
-     * Возвращает список всех категорий, доступных в системе.
+     * Возвращает список всех категорий, доступных в системе, без товаров.
      * </p>
      *
-     * @return список всех {@link Category} объектов.
+     * @return список всех {@link CategoryDto} объектов.
      */
-    List<Category> findAll();
+    List<CategoryDto> findAll();
     /**
      * Находит все продукты с поддержкой постраничного отображения.
      * <p>
@@ -0,0 +1,86 @@
+package ru.academytop.eshop.service;
+
+import ru.academytop.eshop.dto.ImageVariantDto;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Сервис уменьшенных вариантов изображений товаров.
+ * <p>
+ * Вариант изображения создается из исходного файла {@code static/img} при первом запросе, сохраняется
+ * в дисковом кэше и в дальнейшем отдается из него. Допустимы только размеры из {@link Size}, поэтому
+ * количество вариантов одного изображения ограничено.
+ * </p>
+ */
+public interface ImageVariantService {
+    /**
+     * Допустимые размеры вариантов. Изображение вписывается в прямоугольник с сохранением пропорций
+     * и никогда не увеличивается.
+     */
+    enum Size {
+        /**
+         * Миниатюра для корзины и заказа.
+         */
+        THUMBNAIL(160, 200),
+        /**
+         * Карточка товара в списках.
+         */
+        CARD(320, 400),
+        /**
+         * Страница товара.
+         */
+        DETAIL(640, 800);
+
+        private final int width;
+        private final int height;
+
+        Size(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+
+        /**
+         * Находит размер по ширине и высоте.
+         *
+         * @param width  ширина.
+         * @param height высота.
+         * @return размер или пустой Optional, если такой размер не разрешен.
+         */
+        public static Optional<Size> of(int width, int height) {
+            for (Size size : values()) {
+                if (size.width == width && size.height == height) {
+                    return Optional.of(size);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Возвращает вариант изображения, создавая его при первом обращении.
+     *
+     * @param path путь к исходному изображению относительно {@code static/img}.
+     * @param size размер варианта.
+     * @return вариант изображения или пустой Optional, если исходного изображения нет или его формат не поддерживается.
+     * @throws IOException если не удалось прочитать исходное изображение или записать вариант.
+     */
+    Optional<ImageVariantDto> getVariant(String path, Size size) throws IOException;
+
+    /**
+     * Возвращает URL варианта для ссылки на изображение товара.
+     *
+     * @param link ссылка на исходное изображение (например, {@code /img/jeans/Blue_Ridge.png}).
+     * @param size размер варианта.
+     * @return URL варианта или исходная ссылка, если она не указывает на {@code /img/}.
+     */
+    String variantUrl(String link, Size size);
+}
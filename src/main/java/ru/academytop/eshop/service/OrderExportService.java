@@ -0,0 +1,59 @@
+package ru.academytop.eshop.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Сервис для выгрузки заказов администратором.
+ * <p>
+ * Этот интерфейс описывает потоковую выгрузку заказов и их позиций в формате CSV или NDJSON
+ * без загрузки всех заказов в память.
+ * </p>
+ */
+public interface OrderExportService {
+    /**
+     * Формат выгрузки заказов.
+     */
+    enum Format {
+        /**
+         * CSV: одна строка на каждую позицию заказа.
+         */
+        CSV("text/csv", "csv"),
+        /**
+         * NDJSON: один JSON-объект на строку для каждого заказа со списком идентификаторов товаров.
+         */
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Записывает заказы, созданные в указанном интервале, в выходной поток.
+     * <p>
+     * Заказы читаются из базы данных курсором и сразу пишутся в поток, поэтому потребление памяти
+     * не зависит от количества выгружаемых заказов.
+     * </p>
+     *
+     * @param format формат выгрузки.
+     * @param from   начало интервала (включительно).
+     * @param to     конец интервала (не включительно).
+     * @param out    выходной поток, например поток HTTP-ответа.
+     * @throws IOException если запись в поток не удалась.
+     */
+    void export(Format format, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException;
+}
@@ -1,6 +1,7 @@
 package ru.academytop.eshop.service;
 
 import ru.academytop.eshop.dto.CartDto;
+import ru.academytop.eshop.dto.OrderSummaryDto;
 import ru.academytop.eshop.entity.Order;
 
 import java.util.List;
@@ -29,9 +30,9 @@ public interface OrderService {
      * </p>
      *
      * @param userId идентификатор пользователя, чьи заказы нужно найти.
-     * @return список {@link Order} объектов для указанного пользователя.
+     * @return список {@link OrderSummaryDto} с заказами указанного пользователя.
      */
-    List<Order> readOrders(Integer userId);
+    List<OrderSummaryDto> readOrders(Integer userId);
     /**
      * Находит заказ по его идентификатору.
      * <p>
@@ -1,10 +1,14 @@
 package ru.academytop.eshop.service;
 
+import ru.academytop.eshop.dto.ProductCardDto;
 import ru.academytop.eshop.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 /**
@@ -14,6 +18,20 @@ import java.util.Set;
  * </p>
  */
 public interface ProductService {
+    /**
+     * Обработчик очередной порции карточек продуктов при потоковом поиске.
+     */
+    @FunctionalInterface
+    interface CardChunkHandler {
+        /**
+         * Обрабатывает порцию карточек, например записывает их HTML в ответ.
+         *
+         * @param cards карточки продуктов в порядке идентификаторов.
+         * @throws IOException если запись не удалась.
+         */
+        void handle(List<ProductCardDto> cards) throws IOException;
+    }
+
     /**
      * Возвращает список всех продуктов.
      * <p>
@@ -43,6 +61,21 @@ public interface ProductService {
      * @return набор {@link Product} объектов, соответствующих ключу поиска.
      */
     Set<Product> searchProductsByNameAndDescription(String searchKey);
+    /**
+     * Ищет продукты по названию и описанию и передает их обработчику порциями по мере чтения из базы данных.
+     * <p>
+     * В отличие от {@link #searchProductsByNameAndDescription(String)} результат не собирается в памяти:
+     * первая порция передается, как только прочитаны первые {@code chunkSize} строк, поэтому время до первой
+     * порции и потребление памяти не зависят от количества найденных продуктов.
+     * </p>
+     *
+     * @param searchKey ключ поиска, который может быть частью названия или описания продукта.
+     * @param chunkSize количество карточек в одной порции.
+     * @param handler   обработчик порций.
+     * @return количество найденных продуктов.
+     * @throws IOException если обработчик не смог записать порцию.
+     */
+    int streamSearch(String searchKey, int chunkSize, CardChunkHandler handler) throws IOException;
     /**
      * Возвращает постраничный список продуктов.
      * <p>
@@ -53,5 +86,16 @@ public interface ProductService {
      * @return {@link Page} объектов {@link Product}, соответствующих параметрам постраничного отображения.
      */
     Page<Product> findPaginated(Pageable pageable);
+    /**
+     * Возвращает ссылки на изображения продуктов списка.
+     * <p>
+     * Ссылки всех продуктов загружаются одним запросом или берутся из кэша, поэтому шаблон списка
+     * не обращается к ленивой связи {@code image} каждого продукта.
+     * </p>
+     *
+     * @param products продукты, которые будут показаны на странице.
+     * @return карта идентификатор продукта - ссылка на изображение.
+     */
+    Map<Integer, String> findImageLinks(Collection<Product> products);
 
 }
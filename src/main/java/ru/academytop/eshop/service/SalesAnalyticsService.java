@@ -0,0 +1,38 @@
+package ru.academytop.eshop.service;
+
+import ru.academytop.eshop.dto.DailySalesDto;
+
+import java.time.LocalDate;
+import java.util.List;
+/**
+ * Сервис аналитики продаж.
+ * <p>
+ * Этот интерфейс описывает методы для инкрементального построения дневных сводок продаж
+ * и для чтения этих сводок на панели администратора.
+ * </p>
+ */
+public interface SalesAnalyticsService {
+    /**
+     * Добавляет в дневные сводки заказы, зафиксированные после предыдущего прохода.
+     *
+     * @return количество заказов, попавших в обработанную порцию (по диапазону идентификаторов).
+     */
+    int rollupNewOrders();
+    /**
+     * Возвращает дневные продажи по категориям за период.
+     *
+     * @param from первый день периода (включительно).
+     * @param to последний день периода (включительно).
+     * @return список {@link DailySalesDto} по дням и категориям.
+     */
+    List<DailySalesDto> findDailyCategorySales(LocalDate from, LocalDate to);
+    /**
+     * Возвращает товары с наибольшей выручкой за период.
+     *
+     * @param from первый день периода (включительно).
+     * @param to последний день периода (включительно).
+     * @param limit максимальное количество товаров.
+     * @return список {@link DailySalesDto} по товарам.
+     */
+    List<DailySalesDto> findTopProducts(LocalDate from, LocalDate to, int limit);
+}
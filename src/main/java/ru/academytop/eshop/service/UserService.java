@@ -1,5 +1,8 @@
 package ru.academytop.eshop.service;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import ru.academytop.eshop.dto.AdminUserRowDto;
 import ru.academytop.eshop.dto.RegistrationFormDto;
 import ru.academytop.eshop.entity.User;
 
@@ -20,6 +23,18 @@ public interface UserService {
      * @return список {@link User} объектов.
      */
     List<User> findAll();
+    /**
+     * Возвращает страницу пользователей для таблицы администратора.
+     * <p>
+     * Пользователи фильтруются по префиксу имени или электронной почты; для каждого пользователя
+     * возвращаются количество и сумма его заказов.
+     * </p>
+     *
+     * @param search префикс имени или электронной почты; пустая строка возвращает всех пользователей.
+     * @param pageable параметры страницы и сортировки.
+     * @return страница {@link AdminUserRowDto} объектов.
+     */
+    Page<AdminUserRowDto> findAdminPage(String search, Pageable pageable);
     /**
      * Регистрирует нового пользователя.
      * <p>
@@ -1,19 +1,19 @@
 package ru.academytop.eshop.service.impl;
 
+import ru.academytop.eshop.cache.ReferenceDataRegistry;
+import ru.academytop.eshop.dto.CategoryDto;
 import ru.academytop.eshop.entity.Category;
 import ru.academytop.eshop.entity.Product;
 import ru.academytop.eshop.entity.User;
-import ru.academytop.eshop.repository.CategoryRepository;
 import ru.academytop.eshop.repository.ProductRepository;
 import ru.academytop.eshop.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -25,29 +25,29 @@ import java.util.List;
  */
 @Service
 public class CategoryServiceImpl implements CategoryService {
-    private final CategoryRepository categoryRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
     private final ProductRepository productRepository;
 
     /**
      * Конструктор для инициализации {@link CategoryServiceImpl}.
      *
-     * @param categoryRepository репозиторий для работы с категориями.
-     * @param productRepository  репозиторий для работы с продуктами.
+     * @param referenceDataRegistry реестр справочных данных (роли и категории).
+     * @param productRepository     репозиторий для работы с продуктами.
      */
     @Autowired
-    public CategoryServiceImpl(CategoryRepository categoryRepository, ProductRepository productRepository) {
-        this.categoryRepository = categoryRepository;
+    public CategoryServiceImpl(ReferenceDataRegistry referenceDataRegistry, ProductRepository productRepository) {
+        this.referenceDataRegistry = referenceDataRegistry;
         this.productRepository = productRepository;
     }
 
     /**
-     * Получает список всех категорий.
+     * Получает список всех категорий из {@link ReferenceDataRegistry} без обращения к базе данных.
      *
      * @return список всех категорий.
      */
     @Override
-    public List<Category> findAll() {
-        return categoryRepository.findAll();
+    public List<CategoryDto> findAll() {
+        return referenceDataRegistry.findAllCategories();
     }
 
     /**
@@ -75,8 +75,8 @@ public class CategoryServiceImpl implements CategoryService {
     /**
      * Получает страницу продуктов для заданной категории с учетом постраничного отображения.
      * <p>
-     * Метод извлекает продукты для заданной категории, затем создает страницу с учетом текущего номера страницы
-     * и размера страницы. Если продукты меньше, чем стартовый элемент, возвращается пустой список.
+     * Метод извлекает из базы данных только продукты текущей страницы, упорядоченные по идентификатору.
+     * Ссылки на изображения страницы загружаются отдельно через {@link ru.academytop.eshop.service.ProductService#findImageLinks}.
      * </p>
      *
      * @param categoryId идентификатор категории, для которой нужно найти продукты.
@@ -85,17 +85,7 @@ public class CategoryServiceImpl implements CategoryService {
      */
     @Override
     public Page findProductsByCategoryId(Integer categoryId, Pageable pageable) {
-        int pageSize = pageable.getPageSize();
-        int currentPage = pageable.getPageNumber();
-        int startItem = currentPage * pageSize;
-        List<Product> products = productRepository.findProductsByCategoryId(categoryId);
-        List<Product> list;
-        if (products.size() < startItem) {
-            list = Collections.emptyList();
-        } else {
-            int toIndex = Math.min(startItem + pageSize, products.size());
-            list = products.subList(startItem, toIndex);
-        }
-        return new PageImpl<>(list, PageRequest.of(currentPage, pageSize), products.size());
+        return productRepository.findAllByCategory_CategoryId(categoryId,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("productId")));
     }
 }
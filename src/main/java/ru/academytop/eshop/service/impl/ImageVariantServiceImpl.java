@@ -0,0 +1,296 @@
+package ru.academytop.eshop.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+import ru.academytop.eshop.dto.ImageVariantDto;
+import ru.academytop.eshop.service.ImageVariantService;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Реализация сервиса уменьшенных вариантов изображений.
+ * <p>
+ * Ключ варианта вычисляется как SHA-256 от хэша исходного файла, размера и качества сжатия, поэтому кэш адресуется
+ * содержимым: измененное исходное изображение получает новый ключ, а старые варианты просто перестают
+ * запрашиваться. Файлы кэша раскладываются по подкаталогам по первым двум символам ключа и записываются
+ * через временный файл с атомарным переименованием. Одновременные запросы одного варианта ждут
+ * единственного преобразования.
+ * </p>
+ * <p>
+ * Непрозрачные изображения сохраняются в JPEG, изображения с прозрачностью - в PNG.
+ * </p>
+ */
+@Slf4j
+@Service("imageVariants")
+public class ImageVariantServiceImpl implements ImageVariantService {
+    private static final String IMG_PREFIX = "/img/";
+    private static final String SOURCE_LOCATION = "classpath:static/img/";
+    private final ResourceLoader resourceLoader;
+    private final Path cacheDir;
+    private final float jpegQuality;
+    private final Map<String, String> sourceDigests = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<ImageVariantDto>> variants = new ConcurrentHashMap<>();
+    private final Counter generated;
+    private final Timer generationTimer;
+
+    /**
+     * Конструктор сервиса вариантов изображений.
+     *
+     * @param resourceLoader загрузчик исходных изображений из classpath.
+     * @param cacheDir       каталог дискового кэша вариантов.
+     * @param jpegQuality    качество сжатия JPEG от 0 до 1.
+     * @param meterRegistry  реестр метрик.
+     */
+    @Autowired
+    public ImageVariantServiceImpl(ResourceLoader resourceLoader,
+                                   @Value("${eshop.images.variant.cache-dir:data/image-variants}") String cacheDir,
+                                   @Value("${eshop.images.variant.jpeg-quality:0.8}") float jpegQuality,
+                                   MeterRegistry meterRegistry) {
+        this.resourceLoader = resourceLoader;
+        this.cacheDir = Paths.get(cacheDir);
+        this.jpegQuality = jpegQuality;
+        this.generated = Counter.builder("eshop.images.variants.generated").register(meterRegistry);
+        this.generationTimer = Timer.builder("eshop.images.variants.generation").register(meterRegistry);
+    }
+
+    @Override
+    public Optional<ImageVariantDto> getVariant(String path, Size size) throws IOException {
+        String sourcePath = normalize(path);
+        if (sourcePath == null) {
+            return Optional.empty();
+        }
+        Resource source = resourceLoader.getResource(SOURCE_LOCATION + sourcePath);
+        if (!source.exists()) {
+            return Optional.empty();
+        }
+        String key = variantKey(sourcePath, source, size);
+        CompletableFuture<ImageVariantDto> created = new CompletableFuture<>();
+        CompletableFuture<ImageVariantDto> existing = variants.putIfAbsent(key, created);
+        if (existing != null) {
+            return Optional.ofNullable(join(existing));
+        }
+        try {
+            ImageVariantDto variant = findCached(key).orElse(null);
+            if (variant == null) {
+                variant = generationTimer.recordCallable(() -> generate(source, size, key));
+            }
+            created.complete(variant);
+            if (variant == null) {
+                variants.remove(key);
+            }
+            return Optional.ofNullable(variant);
+        } catch (Exception ex) {
+            variants.remove(key);
+            created.completeExceptionally(ex);
+            if (ex instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Cannot create image variant " + sourcePath, ex);
+        }
+    }
+
+    @Override
+    public String variantUrl(String link, Size size) {
+        if (link == null || !link.startsWith(IMG_PREFIX)) {
+            return link;
+        }
+        return IMG_PREFIX + "v/" + size.getWidth() + "x" + size.getHeight() + "/"
+                + link.substring(IMG_PREFIX.length());
+    }
+
+    private static String normalize(String path) {
+        String relative = path.startsWith("/") ? path.substring(1) : path;
+        if (relative.isEmpty() || relative.contains("..") || relative.contains("\\") || relative.startsWith("v/")) {
+            return null;
+        }
+        return relative;
+    }
+
+    private String variantKey(String sourcePath, Resource source, Size size) throws IOException {
+        String sourceDigest = sourceDigests.get(sourcePath);
+        if (sourceDigest == null) {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(source.getInputStream(), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            sourceDigest = HexFormat.of().formatHex(digest.digest());
+            sourceDigests.put(sourcePath, sourceDigest);
+        }
+        String params = sourceDigest + ":" + size.getWidth() + "x" + size.getHeight() + ":" + jpegQuality;
+        return HexFormat.of().formatHex(sha256().digest(params.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Optional<ImageVariantDto> findCached(String key) {
+        for (String format : new String[]{"jpg", "png"}) {
+            Path file = cacheFile(key, format);
+            if (Files.isRegularFile(file)) {
+                return Optional.of(variant(file, format, key));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private ImageVariantDto generate(Resource source, Size size, String key) throws IOException {
+        BufferedImage original;
+        try (InputStream in = source.getInputStream()) {
+            original = ImageIO.read(in);
+        }
+        if (original == null) {
+            return null;
+        }
+        BufferedImage scaled = scale(original, size);
+        boolean translucent = isTranslucent(scaled);
+        String format = translucent ? "png" : "jpg";
+        Path file = cacheFile(key, format);
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), key, ".tmp");
+        try {
+            if (translucent) {
+                ImageIO.write(scaled, "png", tmp.toFile());
+            } else {
+                writeJpeg(toRgb(scaled), tmp);
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        generated.increment();
+        log.debug("Image variant {} created: {} bytes", file, Files.size(file));
+        return variant(file, format, key);
+    }
+
+    /**
+     * Уменьшает изображение несколькими шагами не более чем вдвое, что дает качество, близкое к бикубической
+     * свертке, без отдельной библиотеки.
+     */
+    private static BufferedImage scale(BufferedImage original, Size size) {
+        double ratio = Math.min(1.0, Math.min((double) size.getWidth() / original.getWidth(),
+                (double) size.getHeight() / original.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(original.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(original.getHeight() * ratio));
+        int type = original.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = original;
+        int width = original.getWidth();
+        int height = original.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static boolean isTranslucent(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return false;
+        }
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if ((image.getRGB(x, y) >>> 24) != 0xFF) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private void writeJpeg(BufferedImage image, Path file) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(file.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private Path cacheFile(String key, String format) {
+        return cacheDir.resolve(key.substring(0, 2)).resolve(key + "." + format);
+    }
+
+    private static ImageVariantDto variant(Path file, String format, String key) {
+        return ImageVariantDto.builder()
+                .file(file)
+                .contentType("png".equals(format) ? "image/png" : "image/jpeg")
+                .key(key)
+                .build();
+    }
+
+    private static ImageVariantDto join(CompletableFuture<ImageVariantDto> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new UncheckedIOException(new IOException("Cannot create image variant", ex.getCause()));
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package ru.academytop.eshop.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.academytop.eshop.repository.OrderExportRepository;
+import ru.academytop.eshop.service.OrderExportService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Реализация сервиса выгрузки заказов.
+ * <p>
+ * Этот класс реализует интерфейс {@link OrderExportService}: строки позиций заказов читаются курсором
+ * из {@link OrderExportRepository} и форматируются прямо в выходной поток через буфер фиксированного размера.
+ * </p>
+ */
+@Service
+public class OrderExportServiceImpl implements OrderExportService {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final OrderExportRepository orderExportRepository;
+
+    /**
+     * Конструктор для инициализации {@link OrderExportServiceImpl}.
+     *
+     * @param orderExportRepository репозиторий для потокового чтения заказов.
+     */
+    @Autowired
+    public OrderExportServiceImpl(OrderExportRepository orderExportRepository) {
+        this.orderExportRepository = orderExportRepository;
+    }
+
+    /**
+     * Записывает заказы в выходной поток в выбранном формате.
+     * <p>
+     * Транзакция только для чтения нужна, чтобы драйвер PostgreSQL читал результат курсором порциями,
+     * а не загружал его целиком.
+     * </p>
+     *
+     * @param format формат выгрузки.
+     * @param from   начало интервала (включительно).
+     * @param to     конец интервала (не включительно).
+     * @param out    выходной поток.
+     * @throws IOException если запись в поток не удалась.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void export(Format format, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            if (format == Format.CSV) {
+                writer.write("order_id,created_at,user_id,price,product_id,quantity\n");
+                orderExportRepository.streamOrderLines(from, to, new CsvRowHandler(writer));
+            } else {
+                NdjsonRowHandler handler = new NdjsonRowHandler(writer);
+                orderExportRepository.streamOrderLines(from, to, handler);
+                handler.finish();
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Обработчик строк, записывающий каждую позицию заказа отдельной строкой CSV.
+     */
+    private static class CsvRowHandler implements RowCallbackHandler {
+        private final Writer writer;
+
+        CsvRowHandler(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                writer.write(Integer.toString(rs.getInt("order_id")));
+                writer.write(',');
+                writer.write(rs.getTimestamp("created_at").toLocalDateTime().toString());
+                writer.write(',');
+                writer.write(nullableInt(rs, "user_id"));
+                writer.write(',');
+                writer.write(Double.toString(rs.getDouble("price")));
+                writer.write(',');
+                writer.write(nullableInt(rs, "product_id"));
+                writer.write(',');
+                writer.write(nullableInt(rs, "quantity"));
+                writer.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Обработчик строк, собирающий позиции одного заказа в один JSON-объект.
+     * <p>
+     * Строки приходят упорядоченными по идентификатору заказа, поэтому в памяти хранится только текущий заказ.
+     * </p>
+     */
+    private static class NdjsonRowHandler implements RowCallbackHandler {
+        private final Writer writer;
+        private final StringBuilder current = new StringBuilder(256);
+        private int currentOrderId;
+        private boolean hasOrder;
+        private boolean hasProducts;
+
+        NdjsonRowHandler(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            int orderId = rs.getInt("order_id");
+            if (!hasOrder || orderId != currentOrderId) {
+                finish();
+                currentOrderId = orderId;
+                hasOrder = true;
+                hasProducts = false;
+                String userId = nullableInt(rs, "user_id");
+                current.append("{\"orderId\":").append(orderId)
+                        .append(",\"createdAt\":\"").append(rs.getTimestamp("created_at").toLocalDateTime())
+                        .append("\",\"userId\":").append(userId.isEmpty() ? "null" : userId)
+                        .append(",\"price\":").append(rs.getDouble("price"))
+                        .append(",\"productIds\":[");
+            }
+            String productId = nullableInt(rs, "product_id");
+            if (!productId.isEmpty()) {
+                // Идентификатор повторяется по количеству единиц, как в корзине и в журнале заказов
+                for (int unit = rs.getInt("quantity"); unit > 0; unit--) {
+                    if (hasProducts) {
+                        current.append(',');
+                    }
+                    current.append(productId);
+                    hasProducts = true;
+                }
+            }
+        }
+
+        /**
+         * Записывает накопленный заказ в поток.
+         */
+        void finish() {
+            if (current.length() == 0) {
+                return;
+            }
+            current.append("]}\n");
+            try {
+                writer.append(current);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            current.setLength(0);
+        }
+    }
+
+    /**
+     * Возвращает значение целочисленной колонки в виде строки или пустую строку для null.
+     *
+     * @param rs     текущая строка результата.
+     * @param column имя колонки.
+     * @return строковое представление значения.
+     * @throws SQLException если чтение колонки не удалось.
+     */
+    private static String nullableInt(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? "" : Integer.toString(value);
+    }
+}
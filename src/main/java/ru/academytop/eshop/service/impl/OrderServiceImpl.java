@@ -1,16 +1,33 @@
 package ru.academytop.eshop.service.impl;
 
+import ru.academytop.eshop.cache.OrderHistoryCache;
+import ru.academytop.eshop.cache.UserDetailsCache;
 import ru.academytop.eshop.dto.CartDto;
+import ru.academytop.eshop.dto.CheckoutResultDto;
+import ru.academytop.eshop.dto.OrderSummaryDto;
 import ru.academytop.eshop.entity.Cart;
 import ru.academytop.eshop.entity.Order;
 import ru.academytop.eshop.entity.User;
+import ru.academytop.eshop.entity.Product;
 import ru.academytop.eshop.entity.converter.CartConverter;
+import ru.academytop.eshop.exceptions.InsufficientBalanceException;
+import ru.academytop.eshop.journal.OrderJournal;
+import ru.academytop.eshop.journal.OrderJournalEntry;
+import ru.academytop.eshop.repository.CheckoutRepository;
 import ru.academytop.eshop.repository.OrderRepository;
 import ru.academytop.eshop.service.OrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 /**
  * Реализация сервиса для управления заказами.
@@ -18,30 +35,68 @@ import java.util.List;
  * Этот класс реализует интерфейс {@link OrderService} и предоставляет методы для создания и чтения заказов.
  * </p>
  */
+@Slf4j
 @Service
 public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final CartConverter cartConverter;
+    private final OrderHistoryCache orderHistoryCache;
+    private final OrderJournal orderJournal;
+    private final CheckoutRepository checkoutRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean balancePayments;
     /**
      * Конструктор для инициализации {@link OrderServiceImpl}.
      *
      * @param orderRepository репозиторий для работы с заказами.
      * @param cartConverter преобразователь для конвертации корзины в сущность заказа.
+     * @param orderHistoryCache кэш истории заказов пользователей.
+     * @param orderJournal локальный журнал заказов (доступен, если включено свойство eshop.order-journal.enabled).
+     * @param checkoutRepository репозиторий для оформления заказа одним запросом.
+     * @param userDetailsCache кэш данных аутентификации, содержащих баланс пользователя.
+     * @param transactionTemplate шаблон транзакции для сохранения заказа в базу данных.
+     * @param balancePayments признак оплаты заказов с баланса пользователя.
      */
     @Autowired
-    public OrderServiceImpl(OrderRepository orderRepository, CartConverter cartConverter) {
+    public OrderServiceImpl(OrderRepository orderRepository, CartConverter cartConverter,
+                            OrderHistoryCache orderHistoryCache, ObjectProvider<OrderJournal> orderJournal,
+                            CheckoutRepository checkoutRepository, UserDetailsCache userDetailsCache,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${eshop.balance.payments.enabled:false}") boolean balancePayments) {
         this.orderRepository = orderRepository;
         this.cartConverter = cartConverter;
+        this.orderHistoryCache = orderHistoryCache;
+        this.orderJournal = orderJournal.getIfAvailable();
+        this.checkoutRepository = checkoutRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.transactionTemplate = transactionTemplate;
+        this.balancePayments = balancePayments;
     }
     /**
      * Сохраняет заказ, используя данные из корзины и идентификатор пользователя.
      * <p>
-     * Метод преобразует {@link CartDto} в {@link Cart}, затем создает {@link Order} и сохраняет его в базе данных.
+     * Метод преобразует {@link CartDto} в {@link Cart}, затем создает {@link Order} и сохраняет его в базе данных
+     * одним запросом {@link CheckoutRepository#placeOrder}: заголовок, все позиции и списание с баланса.
+     * Стоимость заказа пересчитывается по текущим ценам товаров в базе данных.
+     * Сохраненный заказ сразу добавляется в кэш истории заказов пользователя.
+     * </p>
+     * <p>
+     * Если включен локальный журнал заказов, заказ записывается только в журнал, а в базу данных его переносит
+     * {@link ru.academytop.eshop.journal.OrderJournalReplayer}. В этом случае возвращается заказ без идентификатора.
+     * Если журнал недоступен, заказ сохраняется в базу данных напрямую.
+     * </p>
+     * <p>
+     * Если включена оплата с баланса (eshop.balance.payments.enabled), стоимость заказа списывается
+     * с баланса пользователя в той же транзакции, в которой сохраняется заказ; при нехватке средств
+     * транзакция откатывается вместе с заказом. Оплата требует ответа базы данных,
+     * поэтому такие заказы не записываются в локальный журнал.
      * </p>
      *
      * @param cartDto данные корзины, которые нужно сохранить в заказе.
      * @param userId идентификатор пользователя, который создает заказ.
-     * @return сохраненный {@link Order}.
+     * @return сохраненный {@link Order} или null, если часть товаров корзины больше не существует.
+     * @throws InsufficientBalanceException если на балансе пользователя недостаточно средств.
      */
     @Override
     public Order save(CartDto cartDto, Integer userId) {
@@ -53,27 +108,120 @@ public class OrderServiceImpl implements OrderService {
                 .build();
         // Создаем Order объект с данными из корзины и пользователя
         Order order = Order.builder()
+                .createdAt(LocalDateTime.now())
                 .price(BigDecimal.valueOf(cart.getTotalPrice()))
                 .user(user)
                 .products(cart.getProducts())
                 .build();
-        // Сохраняем и возвращаем сохраненный заказ
-        return orderRepository.saveAndFlush(order);
+        // Записываем заказ в локальный журнал, если он включен; стоимость корзины в журнал не попадает,
+        // при воспроизведении заказ оценивается по ценам товаров в базе данных, как и при прямом оформлении
+        if (orderJournal != null && !balancePayments && appendToJournal(order, userId)) {
+            return order;
+        }
+        // Сохраняем заказ со всеми позициями и оплатой одним запросом и добавляем его в кэш истории заказов
+        // Транзакция открывается только здесь, чтобы запись в журнал не требовала соединения с базой данных
+        CheckoutResultDto result = transactionTemplate.execute(status -> checkout(order, userId));
+        if (result == null) {
+            log.warn("Order of user {} was not placed: the cart contains products that no longer exist", userId);
+            return null;
+        }
+        Order savedOrder = Order.builder()
+                .orderId(result.getOrderId())
+                .createdAt(order.getCreatedAt())
+                .price(result.getPrice())
+                .user(user)
+                .products(order.getProducts())
+                .build();
+        savedOrder.setUuid(result.getUuid());
+        orderHistoryCache.append(userId, toSummary(savedOrder));
+        return savedOrder;
+    }
+    /**
+     * Сохраняет заказ и, если включена оплата с баланса, проверяет результат списания.
+     * <p>
+     * Данные аутентификации пользователя, содержащие баланс, удаляются из кэша после фиксации транзакции.
+     * </p>
+     *
+     * @param order заказ, еще не сохраненный в базе данных.
+     * @param userId идентификатор пользователя, который создает заказ.
+     * @return результат оформления заказа или null, если заказ не создан.
+     * @throws InsufficientBalanceException если на балансе пользователя недостаточно средств.
+     */
+    private CheckoutResultDto checkout(Order order, Integer userId) {
+        List<Integer> productIds = order.getProducts().stream().map(Product::getProductId).toList();
+        CheckoutResultDto result = checkoutRepository.placeOrder(userId, productIds, order.getCreatedAt(),
+                balancePayments);
+        if (result == null || !balancePayments) {
+            return result;
+        }
+        String name = result.getDebitedUserName();
+        if (name == null) {
+            throw new InsufficientBalanceException("User " + userId + " cannot pay " + result.getPrice());
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userDetailsCache.evict(name);
+            }
+        });
+        return result;
+    }
+    /**
+     * Записывает принятый заказ в локальный журнал.
+     *
+     * @param order заказ, еще не сохраненный в базе данных.
+     * @param userId идентификатор пользователя, который создает заказ.
+     * @return true, если заказ записан в журнал; false, если журнал недоступен.
+     */
+    private boolean appendToJournal(Order order, Integer userId) {
+        OrderJournalEntry entry = OrderJournalEntry.builder()
+                // Бизнес-ключ заказа служит и ключом записи журнала, поэтому заказ в базе данных получит тот же uuid
+                .journalKey(order.getUuid())
+                .userId(userId)
+                .createdAt(order.getCreatedAt())
+                .productIds(order.getProducts().stream().map(Product::getProductId).toList())
+                .build();
+        try {
+            orderJournal.append(entry);
+            return true;
+        } catch (UncheckedIOException ex) {
+            log.error("Order journal is unavailable, saving order directly", ex);
+            return false;
+        }
     }
     /**
      * Находит все заказы для указанного пользователя.
+     * <p>
+     * Повторные запросы обслуживаются из {@link OrderHistoryCache} без обращения к базе данных.
+     * </p>
      *
      * @param userId идентификатор пользователя, для которого нужно найти заказы.
-     * @return список {@link Order} для указанного пользователя.
+     * @return список {@link OrderSummaryDto} для указанного пользователя.
      */
     @Override
-    public List<Order> readOrders(Integer userId) {
-        // Создаем User объект с заданным userId
-        User user = User.builder()
-                .userId(userId)
+    public List<OrderSummaryDto> readOrders(Integer userId) {
+        // Берем заказы из кэша, при промахе загружаем их из базы данных
+        return orderHistoryCache.get(userId, id -> {
+            // Создаем User объект с заданным userId
+            User user = User.builder()
+                    .userId(id)
+                    .build();
+            // Находим все заказы для указанного пользователя и оставляем только поля строки истории
+            return orderRepository.findAllByUser(user).stream().map(this::toSummary).toList();
+        });
+    }
+    /**
+     * Преобразует заказ в строку истории заказов.
+     *
+     * @param order заказ.
+     * @return {@link OrderSummaryDto} с идентификатором, стоимостью и датой создания заказа.
+     */
+    private OrderSummaryDto toSummary(Order order) {
+        return OrderSummaryDto.builder()
+                .orderId(order.getOrderId())
+                .price(order.getPrice())
+                .createdAt(order.getCreatedAt())
                 .build();
-        // Находим и возвращаем все заказы для указанного пользователя
-        return orderRepository.findAllByUser(user);
     }
     /**
      * Находит заказ по идентификатору заказа.
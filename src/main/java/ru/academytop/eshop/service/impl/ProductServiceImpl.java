@@ -1,7 +1,10 @@
 package ru.academytop.eshop.service.impl;
 
+import ru.academytop.eshop.cache.ImageLinkCache;
+import ru.academytop.eshop.dto.ProductCardDto;
 import ru.academytop.eshop.entity.Product;
 import ru.academytop.eshop.repository.ProductRepository;
+import ru.academytop.eshop.repository.ProductSearchRepository;
 import ru.academytop.eshop.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -9,9 +12,15 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 /**
@@ -23,14 +32,21 @@ import java.util.Set;
 @Service
 public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
+    private final ProductSearchRepository productSearchRepository;
+    private final ImageLinkCache imageLinkCache;
     /**
      * Конструктор для инициализации {@link ProductServiceImpl}.
      *
-     * @param productRepository репозиторий для работы с продуктами.
+     * @param productRepository       репозиторий для работы с продуктами.
+     * @param productSearchRepository репозиторий для потокового поиска продуктов.
+     * @param imageLinkCache          кэш ссылок на изображения продуктов.
      */
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, ProductSearchRepository productSearchRepository,
+                              ImageLinkCache imageLinkCache) {
         this.productRepository = productRepository;
+        this.productSearchRepository = productSearchRepository;
+        this.imageLinkCache = imageLinkCache;
     }
 
     /**
@@ -65,6 +81,55 @@ public class ProductServiceImpl implements ProductService {
     public Set<Product> searchProductsByNameAndDescription(String searchKey) {
         return productRepository.findProductsByNameContainingIgnoreCaseOrDescriptionContainingIgnoreCase(searchKey, searchKey);
     }
+    /**
+     * Ищет продукты курсором и передает их обработчику порциями.
+     * <p>
+     * Транзакция только для чтения нужна, чтобы драйвер PostgreSQL читал результат курсором порциями,
+     * а не загружал его целиком. В памяти хранится только текущая порция карточек.
+     * </p>
+     *
+     * @param searchKey ключевое слово для поиска в имени и описании продуктов.
+     * @param chunkSize количество карточек в одной порции.
+     * @param handler   обработчик порций.
+     * @return количество найденных продуктов.
+     * @throws IOException если обработчик не смог записать порцию.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public int streamSearch(String searchKey, int chunkSize, CardChunkHandler handler) throws IOException {
+        List<ProductCardDto> chunk = new ArrayList<>(chunkSize);
+        int[] found = {0};
+        try {
+            productSearchRepository.streamCards(searchKey, rs -> {
+                chunk.add(ProductCardDto.builder()
+                        .productId(rs.getInt("product_id"))
+                        .name(rs.getString("name"))
+                        .description(rs.getString("description"))
+                        .price(rs.getDouble("price"))
+                        .imageLink(rs.getString("link"))
+                        .build());
+                found[0]++;
+                if (chunk.size() == chunkSize) {
+                    handleChunk(handler, chunk);
+                }
+            });
+            if (!chunk.isEmpty()) {
+                handleChunk(handler, chunk);
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return found[0];
+    }
+
+    private static void handleChunk(CardChunkHandler handler, List<ProductCardDto> chunk) {
+        try {
+            handler.handle(chunk);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        chunk.clear();
+    }
     /**
      * Находит продукты с поддержкой пагинации.
      * <p>
@@ -92,4 +157,15 @@ public class ProductServiceImpl implements ProductService {
         // Создаем и возвращаем объект Page с продуктами для текущей страницы
         return new PageImpl<>(list, PageRequest.of(currentPage, pageSize), products.size());
     }
+    /**
+     * Возвращает ссылки на изображения продуктов из {@link ImageLinkCache}.
+     * Отсутствующие в кэше ссылки загружаются одним запросом.
+     *
+     * @param products продукты, которые будут показаны на странице.
+     * @return карта идентификатор продукта - ссылка на изображение.
+     */
+    @Override
+    public Map<Integer, String> findImageLinks(Collection<Product> products) {
+        return imageLinkCache.getLinks(products.stream().map(Product::getProductId).toList());
+    }
 }
@@ -0,0 +1,77 @@
+package ru.academytop.eshop.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.academytop.eshop.dto.DailySalesDto;
+import ru.academytop.eshop.repository.SalesRollupRepository;
+import ru.academytop.eshop.service.SalesAnalyticsService;
+
+import java.time.LocalDate;
+import java.util.List;
+/**
+ * Реализация сервиса аналитики продаж.
+ * <p>
+ * Этот класс реализует интерфейс {@link SalesAnalyticsService}. Построение сводок выполняется в одной транзакции:
+ * блокировка отметки, агрегирование новой порции заказов и сохранение новой отметки. Чтение выполняется
+ * только из таблиц сводок.
+ * </p>
+ */
+@Service
+public class SalesAnalyticsServiceImpl implements SalesAnalyticsService {
+    private final SalesRollupRepository salesRollupRepository;
+    private final int safetyLagSeconds;
+    /**
+     * Конструктор для инициализации {@link SalesAnalyticsServiceImpl}.
+     *
+     * @param salesRollupRepository репозиторий дневных сводок продаж.
+     * @param safetyLagSeconds минимальный возраст заказа в секундах, после которого он попадает в сводки.
+     */
+    @Autowired
+    public SalesAnalyticsServiceImpl(SalesRollupRepository salesRollupRepository,
+                                     @Value("${eshop.sales.rollup.safety-lag-seconds:60}") int safetyLagSeconds) {
+        this.salesRollupRepository = salesRollupRepository;
+        this.safetyLagSeconds = safetyLagSeconds;
+    }
+    /**
+     * Добавляет в сводки новую порцию заказов и сдвигает отметку последнего обработанного заказа.
+     *
+     * @return ширина обработанного диапазона идентификаторов заказов, 0 если новых заказов нет.
+     */
+    @Override
+    @Transactional
+    public int rollupNewOrders() {
+        int lastOrderId = salesRollupRepository.lockHighWaterMark();
+        Integer upperBound = salesRollupRepository.findUpperBound(lastOrderId, safetyLagSeconds);
+        if (upperBound == null) {
+            return 0;
+        }
+        salesRollupRepository.addOrders(lastOrderId, upperBound);
+        salesRollupRepository.updateHighWaterMark(upperBound);
+        return upperBound - lastOrderId;
+    }
+    /**
+     * Возвращает дневные продажи по категориям за период.
+     *
+     * @param from первый день периода (включительно).
+     * @param to последний день периода (включительно).
+     * @return список строк сводки.
+     */
+    @Override
+    public List<DailySalesDto> findDailyCategorySales(LocalDate from, LocalDate to) {
+        return salesRollupRepository.findDailyCategorySales(from, to);
+    }
+    /**
+     * Возвращает товары с наибольшей выручкой за период.
+     *
+     * @param from первый день периода (включительно).
+     * @param to последний день периода (включительно).
+     * @param limit максимальное количество товаров.
+     * @return список строк сводки.
+     */
+    @Override
+    public List<DailySalesDto> findTopProducts(LocalDate from, LocalDate to, int limit) {
+        return salesRollupRepository.findTopProducts(from, to, limit);
+    }
+}
@@ -1,46 +1,74 @@
 package ru.academytop.eshop.service.impl;
 
+import ru.academytop.eshop.cache.ReferenceDataRegistry;
+import ru.academytop.eshop.cache.UserDetailsCache;
+import ru.academytop.eshop.cache.UserIdentityBloomFilter;
+import ru.academytop.eshop.dto.AdminUserRowDto;
 import ru.academytop.eshop.dto.RegistrationFormDto;
+import ru.academytop.eshop.dto.RoleDto;
+import ru.academytop.eshop.dto.UserAuthDto;
 import ru.academytop.eshop.entity.Role;
 import ru.academytop.eshop.entity.User;
 import ru.academytop.eshop.exceptions.UserNotFoundException;
+import ru.academytop.eshop.repository.AdminUserGridRepository;
 import ru.academytop.eshop.repository.RoleRepository;
 import ru.academytop.eshop.repository.UserRepository;
 import ru.academytop.eshop.entity.model.CustomUserDetail;
 import ru.academytop.eshop.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
 /**
  * Реализация сервиса для управления пользователями.
  * <p>
- * Этот класс реализует интерфейсы {@link UserService} и {@link UserDetailsService}, предоставляя методы для регистрации
- * пользователей, поиска пользователей и работы с деталями пользователя.
+ * Этот класс реализует интерфейсы {@link UserService}, {@link UserDetailsService} и {@link UserDetailsPasswordService},
+ * предоставляя методы для регистрации пользователей, поиска пользователей, работы с деталями пользователя
+ * и перехэширования паролей при входе.
  * </p>
  */
 @Service
-public class UserServiceImpl implements UserService, UserDetailsService {
+public class UserServiceImpl implements UserService, UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final RoleRepository roleRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final AdminUserGridRepository adminUserGridRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final UserIdentityBloomFilter userIdentityBloomFilter;
     /**
      * Конструктор для инициализации {@link UserServiceImpl}.
      *
      * @param userRepository репозиторий для работы с пользователями.
      * @param passwordEncoder компонент для кодирования паролей.
      * @param roleRepository репозиторий для работы с ролями.
+     * @param userDetailsCache кэш данных пользователей для аутентификации.
+     * @param adminUserGridRepository репозиторий таблицы пользователей для администратора.
+     * @param referenceDataRegistry реестр справочных данных (роли и категории).
+     * @param userIdentityBloomFilter фильтр Блума по именам и email зарегистрированных пользователей.
      */
     @Autowired
-    private UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, RoleRepository roleRepository) {
+    private UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, RoleRepository roleRepository,
+                            UserDetailsCache userDetailsCache, AdminUserGridRepository adminUserGridRepository,
+                            ReferenceDataRegistry referenceDataRegistry,
+                            UserIdentityBloomFilter userIdentityBloomFilter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.roleRepository = roleRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.adminUserGridRepository = adminUserGridRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.userIdentityBloomFilter = userIdentityBloomFilter;
     }
     /**
      * Находит и возвращает всех пользователей.
@@ -51,21 +79,37 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     public List<User> findAll() {
         return userRepository.findAll();
     }
+    /**
+     * Возвращает страницу пользователей для таблицы администратора.
+     *
+     * @param search префикс имени или электронной почты.
+     * @param pageable параметры страницы и сортировки.
+     * @return страница {@link AdminUserRowDto}.
+     */
+    @Override
+    public Page<AdminUserRowDto> findAdminPage(String search, Pageable pageable) {
+        return adminUserGridRepository.findPage(search, pageable);
+    }
     /**
      * Регистрирует нового пользователя на основе данных из регистрационной формы.
      * <p>
-     * Если пользователь с данным email не существует и роль "ROLE_USER" найдена, создается новый пользователь,
+     * Если пользователи с данным email и именем не существуют и роль "ROLE_USER" найдена, создается новый пользователь,
      * пароль которого кодируется перед сохранением. В противном случае выбрасывается исключение {@link BadCredentialsException}.
+     * То же исключение выбрасывается, если имя или email заняты, но проверка этого не обнаружила и вставку
+     * отклонило уникальное ограничение базы данных.
      * </p>
      *
      * @param registrationFormDto объект {@link RegistrationFormDto} с данными для регистрации.
      */
     @Override
     public void register(RegistrationFormDto registrationFormDto) {
-        // Находим роль "ROLE_USER"
-        Role role = roleRepository.findByName("ROLE_USER");
-        // Проверяем, существует ли пользователь с таким email
-        if (!isExist(registrationFormDto.getEmail()) && role != null) {
+        // Находим роль "ROLE_USER" в реестре справочных данных (без запроса к базе данных)
+        RoleDto roleDto = referenceDataRegistry.findRoleByName("ROLE_USER").orElse(null);
+        // Проверяем, существует ли пользователь с таким email или именем
+        if (!isExist(registrationFormDto.getEmail()) && !isNameTaken(registrationFormDto.getName())
+                && roleDto != null) {
+            // Ссылка на роль по идентификатору, без загрузки сущности
+            Role role = roleRepository.getReferenceById(roleDto.getId());
             User user = User.builder()
                     .name(registrationFormDto.getName())
                     .password(passwordEncoder.encode(registrationFormDto.getPassword()))
@@ -74,8 +118,16 @@ public class UserServiceImpl implements UserService, UserDetailsService {
                     .balance(BigDecimal.valueOf(0.0))
                     .role(role)
                     .build();
-            // Сохраняем нового пользователя
-            userRepository.save(user);
+            // Сохраняем нового пользователя и добавляем его имя и email в фильтр Блума
+            try {
+                userRepository.save(user);
+            } catch (DataIntegrityViolationException ex) {
+                // Пользователь с таким именем или email появился после проверки (другой экземпляр приложения
+                // или параллельная регистрация): уникальные ограничения базы данных - окончательная проверка
+                throw new BadCredentialsException("Bad credentials");
+            }
+            userIdentityBloomFilter.putName(user.getName());
+            userIdentityBloomFilter.putEmail(user.getEmail());
         } else {
             // Выбрасываем исключение, если пользователь уже существует или роль не найдена
             throw new BadCredentialsException("Bad credentials");
@@ -83,6 +135,10 @@ public class UserServiceImpl implements UserService, UserDetailsService {
     }
     /**
      * Загружает данные пользователя по имени (логину) для аутентификации.
+     * <p>
+     * Данные читаются запросом {@link UserRepository#findAuthByName(String)} без заказов пользователя
+     * и кэшируются в {@link UserDetailsCache} на короткое время.
+     * </p>
      *
      * @param name имя пользователя (логин).
      * @return {@link UserDetails} объект, содержащий данные пользователя для аутентификации.
@@ -90,18 +146,70 @@ public class UserServiceImpl implements UserService, UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String name) throws UserNotFoundException {
-        User user = userRepository.findByName(name).orElseThrow(()
-                -> new UserNotFoundException("User not found"));
-        return new CustomUserDetail(user);
+        return userDetailsCache.get(name, key -> new CustomUserDetail(userRepository.findAuthByName(key)
+                .orElseThrow(() -> new UserNotFoundException("User not found"))));
+    }
+    /**
+     * Сохраняет новый хэш пароля пользователя.
+     * <p>
+     * Вызывается Spring Security после успешного входа, если сохраненный хэш создан с устаревшими параметрами
+     * (см. {@link PasswordEncoder#upgradeEncoding(String)}).
+     * </p>
+     *
+     * @param user        данные пользователя, прошедшего аутентификацию.
+     * @param newPassword новый хэш пароля.
+     * @return данные пользователя с новым хэшем пароля.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        userDetailsCache.evict(user.getUsername());
+        CustomUserDetail details = (CustomUserDetail) user;
+        return new CustomUserDetail(UserAuthDto.builder()
+                .userId(details.getUserId())
+                .name(details.getUsername())
+                .password(newPassword)
+                .email(details.getEmail())
+                .birthDate(details.getBirthDate())
+                .balance(details.getBalance())
+                .roleName(details.getRoleName())
+                .build());
     }
     /**
      * Проверяет существование пользователя по его email.
+     * Запрос к базе данных выполняется, только если фильтр Блума не исключил этот email.
      *
      * @param email email для проверки.
      * @return {@code true}, если пользователь с данным email существует, иначе {@code false}.
      */
     private boolean isExist(String email) {
-        return userRepository.existsByEmail(email);
+        // Фильтр Блума отвечает "точно нет" без запроса к базе данных
+        if (!userIdentityBloomFilter.mightContainEmail(email)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByEmail(email);
+        if (!exists) {
+            userIdentityBloomFilter.recordFalsePositive();
+        }
+        return exists;
+    }
+    /**
+     * Проверяет, занято ли имя пользователя.
+     *
+     * @param name имя для проверки.
+     * @return {@code true}, если пользователь с данным именем существует, иначе {@code false}.
+     */
+    private boolean isNameTaken(String name) {
+        // Фильтр Блума отвечает "точно нет" без запроса к базе данных
+        if (!userIdentityBloomFilter.mightContainName(name)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByName(name);
+        if (!exists) {
+            userIdentityBloomFilter.recordFalsePositive();
+        }
+        return exists;
     }
 
 }
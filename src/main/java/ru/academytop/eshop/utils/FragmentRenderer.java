@@ -0,0 +1,84 @@
+package ru.academytop.eshop.utils;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Отрисовка фрагмента шаблона Thymeleaf в строку.
+ * <p>
+ * Фрагмент отрисовывается в контексте текущего запроса, так же как при обычном выводе страницы: работают ссылки
+ * {@code @{...}}, обращения к бинам {@code @bean} и переписывание адресов статических ресурсов. Результат
+ * вставляется в страницу через {@code th:utext} и может храниться в {@link ru.academytop.eshop.cache.FragmentCache},
+ * поэтому фрагмент не должен зависеть от пользователя или сессии.
+ * </p>
+ */
+@Component
+public class FragmentRenderer {
+    private final TemplateEngine templateEngine;
+    private final ApplicationContext applicationContext;
+    private final JakartaServletWebApplication webApplication;
+
+    /**
+     * Конструктор компонента отрисовки фрагментов.
+     *
+     * @param templateEngine     движок шаблонов.
+     * @param applicationContext контекст приложения для обращений к бинам из шаблонов.
+     * @param servletContext     контекст сервлетов.
+     */
+    @Autowired
+    public FragmentRenderer(TemplateEngine templateEngine, ApplicationContext applicationContext,
+                            ServletContext servletContext) {
+        this.templateEngine = templateEngine;
+        this.applicationContext = applicationContext;
+        this.webApplication = JakartaServletWebApplication.buildApplication(servletContext);
+    }
+
+    /**
+     * Отрисовывает фрагмент шаблона.
+     *
+     * @param template  имя шаблона, например {@code fragment/catalog}.
+     * @param fragment  имя фрагмента ({@code th:fragment}) в шаблоне.
+     * @param variables переменные модели фрагмента.
+     * @param request   текущий HTTP-запрос.
+     * @param response  текущий HTTP-ответ.
+     * @return HTML фрагмента.
+     */
+    public String render(String template, String fragment, Map<String, Object> variables,
+                         HttpServletRequest request, HttpServletResponse response) {
+        return templateEngine.process(template, Set.of(fragment), context(variables, request, response));
+    }
+
+    /**
+     * Отрисовывает шаблон целиком.
+     *
+     * @param template  имя шаблона страницы.
+     * @param variables переменные модели страницы.
+     * @param request   текущий HTTP-запрос.
+     * @param response  текущий HTTP-ответ.
+     * @return HTML страницы.
+     */
+    public String render(String template, Map<String, Object> variables,
+                         HttpServletRequest request, HttpServletResponse response) {
+        return templateEngine.process(template, context(variables, request, response));
+    }
+
+    private WebContext context(Map<String, Object> variables, HttpServletRequest request,
+                               HttpServletResponse response) {
+        WebContext context = new WebContext(webApplication.buildExchange(request, response), request.getLocale(),
+                variables);
+        context.setVariable(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                new ThymeleafEvaluationContext(applicationContext, null));
+        return context;
+    }
+}
@@ -13,11 +13,13 @@ public class PageName {
     public static final String LOGIN_PAGE = "login";
     public static final String REGISTRATION_PAGE = "registration";
     public static final String PRODUCT_PAGE = "product";
+    public static final String SEARCH_PAGE = "search";
     public static final String PROFILE_PAGE = "profile";
     public static final String CART_PAGE = "cart";
     public static final String ORDER_HISTORY_PAGE = "order_history";
     public static final String ORDER_PAGE = "order";
     public static final String ADMIN_PAGE = "admin";
+    public static final String SALES_PAGE = "sales";
     public static final String ERROR_PAGE = "error";
 
 }
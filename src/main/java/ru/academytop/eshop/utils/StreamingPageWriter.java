@@ -0,0 +1,91 @@
+package ru.academytop.eshop.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Потоковый вывод страницы, основная часть которой пишется по мере получения данных.
+ * <p>
+ * Шаблон страницы отрисовывается один раз без данных; место для потокового содержимого отмечается в нем
+ * выражением {@code <th:block th:utext="${streamSlot}"/>}. Часть страницы до этой отметки (заголовок,
+ * стили, навигация) сразу отправляется клиенту, затем пишется и сбрасывается потоковое содержимое,
+ * после него - оставшаяся часть страницы. Время до первого байта не зависит от объема содержимого.
+ * </p>
+ * <p>
+ * Ответ пишется через {@link jakarta.servlet.ServletOutputStream}, а не {@code getWriter()}: если клиент закрыл
+ * соединение, запись бросает {@link IOException} и генерация содержимого прекращается.
+ * </p>
+ */
+@Component
+public class StreamingPageWriter {
+    /**
+     * Имя переменной модели, отмечающей место потокового содержимого в шаблоне.
+     */
+    public static final String SLOT_VARIABLE = "streamSlot";
+    private static final String SLOT = "<!--stream-slot-->";
+    private final FragmentRenderer fragmentRenderer;
+
+    /**
+     * Тело страницы, записываемое потоком.
+     */
+    @FunctionalInterface
+    public interface Body {
+        /**
+         * Записывает содержимое страницы. Для отправки накопленной части клиенту вызывается {@link Writer#flush()}.
+         *
+         * @param out поток ответа.
+         * @throws IOException если запись не удалась.
+         */
+        void write(Writer out) throws IOException;
+    }
+
+    /**
+     * Конструктор компонента потокового вывода страниц.
+     *
+     * @param fragmentRenderer отрисовка шаблонов в контексте запроса.
+     */
+    @Autowired
+    public StreamingPageWriter(FragmentRenderer fragmentRenderer) {
+        this.fragmentRenderer = fragmentRenderer;
+    }
+
+    /**
+     * Отрисовывает страницу и пишет ее в ответ, вставляя потоковое содержимое на место отметки.
+     *
+     * @param template  имя шаблона страницы с отметкой {@code ${streamSlot}}.
+     * @param variables переменные модели страницы.
+     * @param request   текущий HTTP-запрос.
+     * @param response  текущий HTTP-ответ.
+     * @param body      потоковое содержимое страницы.
+     * @throws IOException если запись в ответ не удалась.
+     */
+    public void write(String template, Map<String, Object> variables, HttpServletRequest request,
+                      HttpServletResponse response, Body body) throws IOException {
+        Map<String, Object> model = new HashMap<>(variables);
+        model.put(SLOT_VARIABLE, SLOT);
+        String page = fragmentRenderer.render(template, model, request, response);
+        int slot = page.indexOf(SLOT);
+        if (slot < 0) {
+            throw new IllegalStateException("Template " + template + " has no ${" + SLOT_VARIABLE + "} slot");
+        }
+        response.setContentType(MediaType.TEXT_HTML_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer out = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+        out.write(page, 0, slot);
+        out.flush();
+        body.write(out);
+        int tail = slot + SLOT.length();
+        out.write(page, tail, page.length() - tail);
+        out.flush();
+    }
+}
@@ -0,0 +1,5 @@
+-- Prefix search on user name and email for the admin user grid.
+-- text_pattern_ops lets PostgreSQL use the index for LIKE 'prefix%' regardless of the database collation.
+--
+CREATE INDEX IF NOT EXISTS idx_users_lower_name_pattern ON users (lower(name) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_lower_email_pattern ON users (lower(email) text_pattern_ops);
@@ -0,0 +1,13 @@
+-- Remember-me tokens (persistent token scheme of Spring Security).
+-- One row per browser series; looked up by primary key on every auto-login.
+--
+CREATE TABLE IF NOT EXISTS persistent_logins
+(
+    series    VARCHAR(64) NOT NULL,
+    username  VARCHAR(64) NOT NULL,
+    token     VARCHAR(64) NOT NULL,
+    last_used TIMESTAMP   NOT NULL,
+    PRIMARY KEY (series)
+);
+
+CREATE INDEX IF NOT EXISTS idx_persistent_logins_username ON persistent_logins (username);
@@ -0,0 +1,21 @@
+-- Append-only ledger of user balance movements.
+-- Every change of users.balance is made by a conditional UPDATE in the same transaction
+-- as the ledger row, so the balance always equals the sum of its ledger entries plus the opening balance.
+--
+CREATE TABLE IF NOT EXISTS balance_ledger
+(
+    entry_id      BIGSERIAL      NOT NULL,
+    user_id       INTEGER        NOT NULL,
+    order_id      INTEGER,
+    amount        NUMERIC(10, 2) NOT NULL,
+    balance_after NUMERIC(10, 2) NOT NULL,
+    created_at    TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (entry_id),
+    CONSTRAINT fk_balance_ledger_user_id FOREIGN KEY (user_id) REFERENCES users (user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_balance_ledger_user_id ON balance_ledger (user_id, entry_id);
+
+-- Last line of defence against an overdraft written by code that bypasses the conditional UPDATE.
+ALTER TABLE users
+    ADD CONSTRAINT users_balance_non_negative CHECK (balance >= 0) NOT VALID;
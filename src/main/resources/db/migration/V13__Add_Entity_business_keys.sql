@@ -0,0 +1,38 @@
+-- Immutable business keys for JPA entities.
+-- The key is assigned by the application when an entity object is created (or by the default below for rows
+-- inserted with plain SQL) and never changes, so equals/hashCode stay stable across persist and merge.
+--
+ALTER TABLE roles
+    ADD COLUMN IF NOT EXISTS uuid UUID NOT NULL DEFAULT gen_random_uuid();
+ALTER TABLE roles
+    ADD CONSTRAINT uk_roles_uuid UNIQUE (uuid);
+
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS uuid UUID NOT NULL DEFAULT gen_random_uuid();
+ALTER TABLE users
+    ADD CONSTRAINT uk_users_uuid UNIQUE (uuid);
+
+ALTER TABLE categories
+    ADD COLUMN IF NOT EXISTS uuid UUID NOT NULL DEFAULT gen_random_uuid();
+ALTER TABLE categories
+    ADD CONSTRAINT uk_categories_uuid UNIQUE (uuid);
+
+ALTER TABLE products
+    ADD COLUMN IF NOT EXISTS uuid UUID NOT NULL DEFAULT gen_random_uuid();
+ALTER TABLE products
+    ADD CONSTRAINT uk_products_uuid UNIQUE (uuid);
+
+ALTER TABLE images
+    ADD COLUMN IF NOT EXISTS uuid UUID NOT NULL DEFAULT gen_random_uuid();
+ALTER TABLE images
+    ADD CONSTRAINT uk_images_uuid UNIQUE (uuid);
+
+ALTER TABLE carts
+    ADD COLUMN IF NOT EXISTS uuid UUID NOT NULL DEFAULT gen_random_uuid();
+ALTER TABLE carts
+    ADD CONSTRAINT uk_carts_uuid UNIQUE (uuid);
+
+-- A unique constraint on the partitioned orders table would have to include created_at,
+-- random keys are not checked there.
+ALTER TABLE orders
+    ADD COLUMN IF NOT EXISTS uuid UUID NOT NULL DEFAULT gen_random_uuid();
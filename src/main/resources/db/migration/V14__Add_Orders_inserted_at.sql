@@ -0,0 +1,6 @@
+-- Time the row was written, assigned by the database.
+-- created_at is the business time of the order and may be far in the past for orders replayed from the local
+-- journal, so the sales rollup uses inserted_at to decide which order ids are old enough to be committed.
+--
+ALTER TABLE orders
+    ADD COLUMN IF NOT EXISTS inserted_at TIMESTAMP NOT NULL DEFAULT clock_timestamp();
@@ -0,0 +1,14 @@
+-- Dead letters of the local order journal: accepted orders that the database refused to store during replay
+-- (for example, a product or user removed in the meantime). Operators fix the cause and retry them from /admin.
+--
+CREATE TABLE IF NOT EXISTS order_journal_rejected
+(
+    journal_key UUID           NOT NULL,
+    user_id     INTEGER        NOT NULL,
+    created_at  TIMESTAMP      NOT NULL,
+    price       NUMERIC(14, 2) NOT NULL,
+    product_ids INTEGER[]      NOT NULL,
+    reason      TEXT,
+    rejected_at TIMESTAMP      NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (journal_key)
+);
@@ -0,0 +1,5 @@
+-- Number of units of the product in the order.
+-- A cart may contain the same product several times; every unit is charged, so every unit is recorded here.
+--
+ALTER TABLE orders_products
+    ADD COLUMN IF NOT EXISTS quantity INTEGER NOT NULL DEFAULT 1 CHECK (quantity > 0);
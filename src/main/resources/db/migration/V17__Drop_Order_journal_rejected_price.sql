@@ -0,0 +1,5 @@
+-- Journal records no longer carry the cart price: replay prices an order from products, like checkout does,
+-- so a rejected record keeps only what is needed to apply it again.
+--
+ALTER TABLE order_journal_rejected
+    DROP COLUMN IF EXISTS price;
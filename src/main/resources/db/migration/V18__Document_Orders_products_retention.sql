@@ -0,0 +1,9 @@
+-- V7 dropped orders_products_order_id_fkey: a foreign key to the partitioned orders table would have to include
+-- created_at, and every insert of order lines (checkout, journal replay, JPA join table) would have to carry it.
+-- Chosen approach: lines stay keyed by order_id alone and never outlive their order in this table.
+-- They are inserted in the same statement or transaction as the order header, and OrderPartitionManager moves
+-- the lines of a retired partition to <partition>_products in the transaction that detaches the partition.
+--
+COMMENT ON TABLE orders_products IS
+    'Order lines without a foreign key to partitioned orders; OrderPartitionManager moves the lines of a detached '
+        'partition to <partition>_products';
@@ -0,0 +1,52 @@
+-- Converting table orders to monthly range partitions on created_at
+--
+ALTER TABLE orders
+    RENAME TO orders_legacy;
+ALTER TABLE orders_legacy
+    RENAME CONSTRAINT orders_pkey TO orders_legacy_pkey;
+-- A foreign key to a partitioned table must include the partition key,
+-- order_id alone stays unique through the sequence
+ALTER TABLE orders_products
+    DROP CONSTRAINT IF EXISTS orders_products_order_id_fkey;
+
+CREATE TABLE orders
+(
+    order_id   INTEGER   NOT NULL DEFAULT nextval('orders_order_id_seq'),
+    price      double precision,
+    created_at TIMESTAMP NOT NULL,
+    user_id    INTEGER,
+    PRIMARY KEY (order_id, created_at),
+    CONSTRAINT fk_orders_user_id FOREIGN KEY (user_id) REFERENCES users (user_id)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE orders_order_id_seq OWNED BY orders.order_id;
+
+-- Rows outside of any monthly partition land here, the partition manager keeps it empty
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+
+-- Monthly partitions from the oldest order up to three months ahead
+DO
+$$
+    DECLARE
+        month_start DATE := date_trunc('month', COALESCE((SELECT min(created_at) FROM orders_legacy), now()))::date;
+        last_month  DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+    BEGIN
+        WHILE month_start <= last_month
+            LOOP
+                EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                               'orders_p' || to_char(month_start, 'YYYY_MM'),
+                               month_start,
+                               (month_start + INTERVAL '1 month')::date);
+                month_start := (month_start + INTERVAL '1 month')::date;
+            END LOOP;
+    END
+$$;
+
+INSERT INTO orders (order_id, price, created_at, user_id)
+SELECT order_id, price, created_at, user_id
+FROM orders_legacy;
+
+DROP TABLE orders_legacy;
+
+CREATE INDEX idx_orders_user_id_created_at ON orders (user_id, created_at);
+CREATE INDEX idx_orders_products_product_id ON orders_products (product_id);
@@ -0,0 +1,34 @@
+-- Daily sales rollups per product and per category
+--
+CREATE TABLE IF NOT EXISTS sales_daily_products
+(
+    sales_date DATE           NOT NULL,
+    product_id INTEGER        NOT NULL,
+    units      BIGINT         NOT NULL DEFAULT 0,
+    revenue    NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sales_date, product_id),
+    CONSTRAINT fk_sales_product_id FOREIGN KEY (product_id) REFERENCES products (product_id)
+);
+
+CREATE TABLE IF NOT EXISTS sales_daily_categories
+(
+    sales_date  DATE           NOT NULL,
+    category_id INTEGER        NOT NULL,
+    units       BIGINT         NOT NULL DEFAULT 0,
+    revenue     NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (sales_date, category_id),
+    CONSTRAINT fk_sales_category_id FOREIGN KEY (category_id) REFERENCES categories (category_id)
+);
+
+-- High-water mark of the last order already added to the rollups
+--
+CREATE TABLE IF NOT EXISTS sales_rollup_state
+(
+    rollup_name   VARCHAR(50) NOT NULL,
+    last_order_id INTEGER     NOT NULL,
+    updated_at    TIMESTAMP   NOT NULL,
+    PRIMARY KEY (rollup_name)
+);
+
+INSERT INTO sales_rollup_state (rollup_name, last_order_id, updated_at)
+VALUES ('daily_sales', 0, CURRENT_TIMESTAMP);
@@ -0,0 +1,10 @@
+-- Keys of local order journal records already applied to the database.
+-- Makes replay of the journal idempotent after a restart or a partial replay.
+--
+CREATE TABLE IF NOT EXISTS order_journal_applied
+(
+    journal_key UUID      NOT NULL,
+    order_id    INTEGER,
+    applied_at  TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (journal_key)
+);
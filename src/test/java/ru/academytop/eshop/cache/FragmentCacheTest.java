@@ -0,0 +1,43 @@
+package ru.academytop.eshop.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FragmentCacheTest {
+    private CatalogVersion catalogVersion;
+    private FragmentCache fragmentCache;
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion();
+        fragmentCache = new FragmentCache(catalogVersion, 1_000_000, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testFragmentIsRenderedOncePerKey() {
+        assertEquals("<p>1</p>", fragmentCache.get("category:1:1:3", this::render));
+        assertEquals("<p>1</p>", fragmentCache.get("category:1:1:3", this::render));
+        assertEquals("<p>2</p>", fragmentCache.get("category:1:2:3", this::render));
+
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void testCatalogChangeInvalidatesFragments() {
+        fragmentCache.get("product:1", this::render);
+        catalogVersion.increment();
+
+        assertEquals("<p>2</p>", fragmentCache.get("product:1", this::render));
+        assertEquals(2, renders.get());
+    }
+
+    private String render() {
+        return "<p>" + renders.incrementAndGet() + "</p>";
+    }
+}
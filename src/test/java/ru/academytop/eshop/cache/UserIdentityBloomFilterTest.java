@@ -0,0 +1,89 @@
+package ru.academytop.eshop.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class UserIdentityBloomFilterTest {
+    private static final int USERS = 1000;
+    private JdbcTemplate jdbcTemplate;
+    private UserIdentityBloomFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        filter = new UserIdentityBloomFilter(jdbcTemplate, USERS, 0.01, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testEverythingMightExistUntilFilterIsBuilt() {
+        assertTrue(filter.mightContainName("Wade"));
+        assertTrue(filter.mightContainEmail("williams@mail.com"));
+    }
+
+    @Test
+    void testFailedBuildKeepsQueryingUntilRetrySucceeds() {
+        doThrow(new DataAccessResourceFailureException("database is down")).doNothing()
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        filter.rebuild();
+        assertTrue(filter.mightContainName("Wade"));
+
+        filter.retryRebuild();
+        assertFalse(filter.mightContainName("Wade"));
+    }
+
+    @Test
+    void testAddedValuesAreAlwaysFound() {
+        filter.rebuild();
+        addUsers();
+
+        for (int i = 0; i < USERS; i++) {
+            assertTrue(filter.mightContainName("User" + i));
+            assertTrue(filter.mightContainEmail("USER" + i + "@mail.com"));
+        }
+    }
+
+    @Test
+    void testNameAndEmailAreCheckedSeparately() {
+        filter.rebuild();
+        filter.putName("Wade");
+
+        assertTrue(filter.mightContainName("Wade"));
+        assertFalse(filter.mightContainEmail("Wade"));
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearTargetWithNamesAndEmails() {
+        filter.rebuild();
+        addUsers();
+
+        int falsePositives = 0;
+        int checks = 0;
+        for (int i = 0; i < 10 * USERS; i++) {
+            falsePositives += filter.mightContainName("other" + i) ? 1 : 0;
+            falsePositives += filter.mightContainEmail("other" + i + "@mail.com") ? 1 : 0;
+            checks += 2;
+        }
+
+        double rate = (double) falsePositives / checks;
+        assertTrue(rate < 0.02, "false positive rate " + rate);
+    }
+
+    private void addUsers() {
+        for (int i = 0; i < USERS; i++) {
+            filter.putName("user" + i);
+            filter.putEmail("user" + i + "@mail.com");
+        }
+    }
+}
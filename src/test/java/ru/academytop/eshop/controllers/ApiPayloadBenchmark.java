@@ -0,0 +1,66 @@
+package ru.academytop.eshop.controllers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Время обработки HTML-страниц каталога и соответствующих запросов JSON API. Адреса перечислены парами
+ * (страница, запрос API); то, что ответ API меньше страницы, проверяет {@link CatalogApiControllerTest}.
+ * Запуск: {@code main} этого класса из тестового classpath при доступной базе данных тестов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiPayloadBenchmark {
+    @Param({
+            "/category?categoryId=1&size=20", "/api/v1/categories/1/products?size=20",
+            "/product/1", "/api/v1/products/1",
+            "/product/search?searchKey=a", "/api/v1/products/search?q=a"
+    })
+    private String url;
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start();
+        mockMvc = BenchmarkApplication.mockMvc(context);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] request() throws Exception {
+        return mockMvc.perform(get(url)).andReturn().getResponse().getContentAsByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ApiPayloadBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,32 @@
+package ru.academytop.eshop.controllers;
+
+import ru.academytop.eshop.EShopApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Приложение для бенчмарков контроллеров: тот же контекст и база данных, что и в тестах,
+ * и {@link MockMvc} с цепочкой Spring Security от имени администратора Wade.
+ */
+final class BenchmarkApplication {
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(EShopApplication.class).properties("server.port=0").run();
+    }
+
+    static MockMvc mockMvc(ConfigurableApplicationContext context) {
+        return MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .defaultRequest(get("/").with(user("Wade").roles("ADMIN")))
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package ru.academytop.eshop.controllers;
+
+import ru.academytop.eshop.EShopApplication;
+import ru.academytop.eshop.cache.CatalogVersion;
+import ru.academytop.eshop.entity.Product;
+import ru.academytop.eshop.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * JSON API каталога и корзины: формат ответов, ETag по версии каталога, потоковый поиск,
+ * размер ответа по сравнению с HTML-страницей, корзина в сессии и ответ 401 вместо перенаправления
+ * на страницу логина.
+ */
+@SpringBootTest(classes = EShopApplication.class, properties = "eshop.search.chunk-size=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureMockMvc
+@WithMockUser(username = "Wade", roles = "ADMIN")
+class CatalogApiControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Test
+    void testCategoriesAreRevalidatedByCatalogVersion() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].categoryId").exists())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/categories").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        catalogVersion.increment();
+        String changed = mockMvc.perform(get("/api/v1/categories").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void testCategoryProductsPage() throws Exception {
+        mockMvc.perform(get("/api/v1/categories/1/products").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page").value(1))
+                .andExpect(jsonPath("$.size").value(3))
+                .andExpect(jsonPath("$.products.length()").value(3))
+                .andExpect(jsonPath("$.products[0].productId").exists())
+                .andExpect(jsonPath("$.products[0].category").doesNotExist());
+    }
+
+    @Test
+    void testProductDetails() throws Exception {
+        mockMvc.perform(get("/api/v1/products/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId").value(1))
+                .andExpect(jsonPath("$.imageUrl").exists());
+        mockMvc.perform(get("/api/v1/products/" + Integer.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testStreamedSearchMatchesJpaSearch() throws Exception {
+        List<Integer> expected = productService.searchProductsByNameAndDescription("a").stream()
+                .map(Product::getProductId)
+                .sorted(Comparator.naturalOrder())
+                .toList();
+
+        String body = mockMvc.perform(get("/api/v1/products/search").param("q", "a"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<Integer> found = new ArrayList<>();
+        for (JsonNode product : objectMapper.readTree(body)) {
+            found.add(product.get("productId").asInt());
+        }
+        assertEquals(expected, found);
+    }
+
+    @Test
+    void testApiResponseIsSmallerThanHtmlPage() throws Exception {
+        int html = mockMvc.perform(get("/category").param("categoryId", "1").param("size", "20"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray().length;
+        int api = mockMvc.perform(get("/api/v1/categories/1/products").param("size", "20"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray().length;
+
+        assertTrue(api < html, "API response is " + api + " B, HTML page is " + html + " B");
+    }
+
+    @Test
+    void testCartIsKeptInSession() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+        mockMvc.perform(post("/api/v1/cart/items/1").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(1));
+        mockMvc.perform(get("/api/v1/cart").session(session))
+                .andExpect(jsonPath("$.products[0].productId").value(1));
+        mockMvc.perform(delete("/api/v1/cart").session(session))
+                .andExpect(jsonPath("$.quantity").value(0));
+        mockMvc.perform(post("/api/v1/cart/items/" + Integer.MAX_VALUE).session(session))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithAnonymousUser
+    void testAnonymousClientGetsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/v1/categories"))
+                .andExpect(status().isUnauthorized());
+    }
+}
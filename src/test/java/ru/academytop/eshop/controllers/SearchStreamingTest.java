@@ -0,0 +1,70 @@
+package ru.academytop.eshop.controllers;
+
+import ru.academytop.eshop.EShopApplication;
+import ru.academytop.eshop.entity.Product;
+import ru.academytop.eshop.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Страница поиска, выводимая потоком: карточки всех найденных продуктов оказываются между навигацией
+ * и подвалом страницы, в порядке идентификаторов, и в результатах те же продукты, что у поиска через JPA.
+ */
+@SpringBootTest(classes = EShopApplication.class, properties = "eshop.search.chunk-size=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureMockMvc
+@WithMockUser(username = "Wade", roles = "ADMIN")
+class SearchStreamingTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void testStreamedPageContainsAllMatchesInOrder() throws Exception {
+        List<Integer> expected = productService.searchProductsByNameAndDescription("a").stream()
+                .map(Product::getProductId)
+                .sorted(Comparator.naturalOrder())
+                .toList();
+
+        String html = mockMvc.perform(get("/product/search").param("searchKey", "a"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        int cardsStart = html.indexOf("class=\"card-block\"");
+        int footer = html.lastIndexOf("</body>");
+        assertTrue(html.indexOf("search-form") < cardsStart, "navigation is written before the cards");
+        List<Integer> found = new ArrayList<>();
+        int from = cardsStart;
+        for (int at = html.indexOf("/cart/add/", from); at > 0 && at < footer; at = html.indexOf("/cart/add/", from)) {
+            int end = html.indexOf('"', at);
+            found.add(Integer.valueOf(html.substring(at + "/cart/add/".length(), end)));
+            from = end;
+        }
+        assertEquals(expected, found);
+        assertTrue(html.trim().endsWith("</html>"));
+    }
+
+    @Test
+    void testLikeWildcardsAreSearchedLiterally() throws Exception {
+        String html = mockMvc.perform(get("/product/search").param("searchKey", "%_%"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(productService.searchProductsByNameAndDescription("%_%").isEmpty(), !html.contains("/cart/add/"));
+    }
+}
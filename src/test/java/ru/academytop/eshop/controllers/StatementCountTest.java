@@ -0,0 +1,105 @@
+package ru.academytop.eshop.controllers;
+
+import ru.academytop.eshop.EShopApplication;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Следит за количеством SQL-запросов на каждую страницу.
+ * Если связь снова станет жадной или появится N+1, тест упадет на превышении бюджета.
+ * Операторы считаются на уровне DataSource, поэтому учитываются запросы и Hibernate, и JdbcTemplate.
+ */
+@SpringBootTest(classes = EShopApplication.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureMockMvc
+@WithMockUser(username = "Wade", roles = "ADMIN")
+class StatementCountTest {
+    private static final Set<String> STATEMENT_METHODS = Set.of("createStatement", "prepareStatement", "prepareCall");
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void resetStatementCount() {
+        STATEMENTS.set(0);
+    }
+
+    @ParameterizedTest(name = "{0} <= {1}")
+    @CsvSource({
+            "/home, 0",
+            "/category?categoryId=1, 3",
+            "/category?categoryId=1&page=2&size=3, 3",
+            "/category?categoryId=1&size=50, 3",
+            "/product/1, 1",
+            "/product/search?searchKey=a, 1",
+            "/product/listProducts?page=1&size=3, 2",
+            "/order/read/1, 1",
+            "/order/read-history/1, 1"
+    })
+    void testStatementBudget(String url, long budget) throws Exception {
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+
+        long statements = STATEMENTS.get();
+        assertTrue(statements <= budget, url + " executed " + statements + " statements, budget is " + budget);
+    }
+
+    /**
+     * Оборачивает DataSource приложения счетчиком операторов.
+     */
+    @TestConfiguration
+    static class StatementCountingConfig {
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counting(dataSource, DataSource.class) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Создает прокси, который делегирует вызовы объекту и считает созданные операторы.
+     * Соединения, выданные DataSource, тоже оборачиваются.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T counting(T target, Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+            if ("getConnection".equals(method.getName())) {
+                return counting((Connection) result, Connection.class);
+            }
+            if (STATEMENT_METHODS.contains(method.getName())) {
+                STATEMENTS.incrementAndGet();
+            }
+            return result;
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package ru.academytop.eshop.controllers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Время отрисовки страницы категории с кэшем шаблонов и без него.
+ * Без кэша каждый запрос заново читает и разбирает category.html и фрагменты topnav/footer;
+ * карточки товаров в обоих случаях берутся из кэша фрагментов каталога.
+ * Запуск: {@code main} этого класса из тестового classpath при доступной базе данных тестов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderBenchmark {
+    private static final String URL = "/category?categoryId=1";
+    @Param({"true", "false"})
+    private boolean cacheable;
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start();
+        mockMvc = BenchmarkApplication.mockMvc(context);
+        context.getBean(SpringResourceTemplateResolver.class).setCacheable(cacheable);
+        context.getBean(SpringTemplateEngine.class).clearTemplateCache();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] renderCategoryPage() throws Exception {
+        return mockMvc.perform(get(URL)).andReturn().getResponse().getContentAsByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TemplateRenderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,90 @@
+package ru.academytop.eshop.entity;
+
+import org.hibernate.Hibernate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время построения {@link HashSet} из товаров: хэш-код по бизнес-ключу против прежнего
+ * постоянного хэш-кода {@code getClass().hashCode()}, при котором все товары попадают в одну корзину.
+ * Запуск: {@code main} этого класса из тестового classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityHashSetBenchmark {
+    @Param({"10000"})
+    private int size;
+    private List<Product> products;
+    private List<ConstantHashProduct> constantHashProducts;
+
+    @Setup
+    public void createProducts() {
+        products = new ArrayList<>(size);
+        constantHashProducts = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            products.add(Product.builder().productId(i).name("product " + i).build());
+            constantHashProducts.add(new ConstantHashProduct(i));
+        }
+    }
+
+    @Benchmark
+    public Set<Product> businessKeyHashCode() {
+        return new HashSet<>(products);
+    }
+
+    @Benchmark
+    public Set<ConstantHashProduct> constantHashCode() {
+        return new HashSet<>(constantHashProducts);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EntityHashSetBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Повторяет прежние equals и hashCode сущностей: равенство по идентификатору и хэш-код класса.
+     */
+    static final class ConstantHashProduct {
+        private final Integer productId;
+
+        ConstantHashProduct(Integer productId) {
+            this.productId = productId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+            ConstantHashProduct product = (ConstantHashProduct) o;
+            return productId != null && Objects.equals(productId, product.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return getClass().hashCode();
+        }
+    }
+}
@@ -1,10 +1,10 @@
-package by.petrovich.eshop.entity.converter;
+package ru.academytop.eshop.entity.converter;
 
-import by.petrovich.eshop.EShopApplication;
-import by.petrovich.eshop.dto.CartDto;
-import by.petrovich.eshop.dto.ProductDto;
-import by.petrovich.eshop.entity.Cart;
-import by.petrovich.eshop.entity.Product;
+import ru.academytop.eshop.EShopApplication;
+import ru.academytop.eshop.dto.CartDto;
+import ru.academytop.eshop.dto.ProductDto;
+import ru.academytop.eshop.entity.Cart;
+import ru.academytop.eshop.entity.Product;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -60,7 +60,12 @@ class CartConverterTest {
                 .build();
 
         CartDto actual = cartConverter.convertToDto(cart);
-        assertEquals(expected, actual);
+        assertEquals(expected.getQuantity(), actual.getQuantity());
+        assertEquals(expected.getTotalPrice(), actual.getTotalPrice());
+        assertEquals(expected.getProducts().size(), actual.getProducts().size());
+        assertEquals(expected.getProducts().get(0).getName(), actual.getProducts().get(0).getName());
+        assertEquals(expected.getProducts().get(0).getDescription(), actual.getProducts().get(0).getDescription());
+        assertEquals(expected.getProducts().get(0).getPrice(), actual.getProducts().get(0).getPrice());
     }
 
     @Test
@@ -103,7 +108,12 @@ class CartConverterTest {
                 .quantity(productsDto.size())
                 .build();
         Cart actual = cartConverter.convertToEntity(cartDto);
-        assertEquals(expected, actual);
+        assertEquals(expected.getQuantity(), actual.getQuantity());
+        assertEquals(expected.getTotalPrice(), actual.getTotalPrice());
+        assertEquals(expected.getProducts().size(), actual.getProducts().size());
+        assertEquals(expected.getProducts().get(0).getName(), actual.getProducts().get(0).getName());
+        assertEquals(expected.getProducts().get(0).getDescription(), actual.getProducts().get(0).getDescription());
+        assertEquals(expected.getProducts().get(0).getPrice(), actual.getProducts().get(0).getPrice());
     }
 
 }
\ No newline at end of file
@@ -1,8 +1,8 @@
-package by.petrovich.eshop.entity.converter;
+package ru.academytop.eshop.entity.converter;
 
-import by.petrovich.eshop.EShopApplication;
-import by.petrovich.eshop.dto.RegistrationFormDto;
-import by.petrovich.eshop.entity.User;
+import ru.academytop.eshop.EShopApplication;
+import ru.academytop.eshop.dto.RegistrationFormDto;
+import ru.academytop.eshop.entity.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -32,7 +32,10 @@ class UserConverterTest {
                 .birthDate(LocalDate.of(1990, 1, 1))
                 .build();
         RegistrationFormDto expected = userConverter.convertToRegisterFormDto(user);
-        assertEquals(actual, expected);
+        assertEquals(actual.getName(), expected.getName());
+        assertEquals(actual.getPassword(), expected.getPassword());
+        assertEquals(actual.getEmail(), expected.getEmail());
+        assertEquals(actual.getBirthDate(), expected.getBirthDate());
     }
 
     @Test
@@ -52,7 +55,10 @@ class UserConverterTest {
                 .orders(new HashSet<>())
                 .build();
         User expected = userConverter.convertRegisterToEntity(registrationFormDto);
-        assertEquals(actual, expected);
+        assertEquals(actual.getName(), expected.getName());
+        assertEquals(actual.getPassword(), expected.getPassword());
+        assertEquals(actual.getEmail(), expected.getEmail());
+        assertEquals(actual.getBirthDate(), expected.getBirthDate());
     }
 
 }
\ No newline at end of file
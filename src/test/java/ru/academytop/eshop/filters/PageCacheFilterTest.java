@@ -0,0 +1,127 @@
+package ru.academytop.eshop.filters;
+
+import ru.academytop.eshop.cache.CatalogVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageCacheFilterTest {
+    private static final String HTML = "<html><body>home</body></html>";
+    private final AtomicInteger renders = new AtomicInteger();
+    private CatalogVersion catalogVersion;
+    private PageCacheFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion();
+        filter = new PageCacheFilter(Set.of("/home"), Duration.ofMinutes(1), Duration.ofMinutes(5), 1_000_000,
+                catalogVersion, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testSecondAnonymousRequestIsServedFromCache() throws Exception {
+        MockHttpServletResponse first = perform(request());
+        MockHttpServletResponse second = perform(request());
+
+        assertEquals(HTML, first.getContentAsString());
+        assertEquals(HTML, second.getContentAsString());
+        assertEquals("HIT", second.getHeader("X-Page-Cache"));
+        assertEquals("DENY", second.getHeader("X-Frame-Options"));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void testGzipVariantIsServedWhenAccepted() throws Exception {
+        perform(request());
+        MockHttpServletRequest request = request();
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+        MockHttpServletResponse response = perform(request);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertEquals(HTML, gunzip(response.getContentAsByteArray()));
+    }
+
+    @Test
+    void testQueryParametersOrderDoesNotMatter() throws Exception {
+        MockHttpServletRequest first = request();
+        first.setQueryString("a=1&b=2");
+        MockHttpServletRequest second = request();
+        second.setQueryString("b=2&a=1");
+        perform(first);
+        perform(second);
+
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void testCatalogChangePurgesPages() throws Exception {
+        perform(request());
+        catalogVersion.increment();
+        MockHttpServletResponse response = perform(request());
+
+        assertNull(response.getHeader("X-Page-Cache"));
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void testAuthenticatedRequestBypassesCache() throws Exception {
+        perform(request());
+        MockHttpServletRequest request = request();
+        request.getSession().setAttribute(HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
+                new SecurityContextImpl());
+        perform(request);
+
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    void testAcceptsGzip() {
+        assertTrue(PageCacheFilter.acceptsGzip("br, gzip;q=0.8"));
+        assertFalse(PageCacheFilter.acceptsGzip("gzip;q=0"));
+        assertFalse(PageCacheFilter.acceptsGzip("identity"));
+        assertFalse(PageCacheFilter.acceptsGzip(null));
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/home");
+        request.setRemoteAddr("127.0.0.1");
+        return request;
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            renders.incrementAndGet();
+            HttpServletResponse httpResponse = (HttpServletResponse) res;
+            httpResponse.setHeader("X-Frame-Options", "DENY");
+            httpResponse.setContentType("text/html;charset=UTF-8");
+            httpResponse.getWriter().write(HTML);
+        });
+        return response;
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package ru.academytop.eshop.filters;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaticAssetCacheFilterTest {
+    private static final String VERSIONED = "/CSS/style-0123456789abcdef0123456789abcdef.css";
+    private final StaticAssetCacheFilter filter = new StaticAssetCacheFilter(List.of("/CSS/"), "/img/v/");
+
+    @Test
+    void testVersionedAssetIsImmutable() throws Exception {
+        MockHttpServletResponse response = perform(VERSIONED, (req, res) -> { });
+
+        assertTrue(response.getHeader("Cache-Control").contains("immutable"));
+    }
+
+    @Test
+    void testMissingVersionedAssetIsNotCachedForAYear() throws Exception {
+        MockHttpServletResponse response = perform(VERSIONED,
+                (req, res) -> ((HttpServletResponse) res).sendError(HttpServletResponse.SC_NOT_FOUND));
+
+        assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+        assertEquals("no-cache, public", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void testUnversionedAssetIsRevalidated() throws Exception {
+        MockHttpServletResponse response = perform("/CSS/style.css", (req, res) -> { });
+
+        assertEquals("no-cache, public", response.getHeader("Cache-Control"));
+    }
+
+    private MockHttpServletResponse perform(String uri, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", uri), response, chain);
+        return response;
+    }
+}
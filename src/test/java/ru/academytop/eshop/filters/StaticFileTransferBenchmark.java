@@ -0,0 +1,139 @@
+package ru.academytop.eshop.filters;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отправка статического файла в сокет через loopback: копирование потоком через буфер 8 КБ, как это делает
+ * обработчик ресурсов Spring, против {@link FileChannel#transferTo}, который в Linux выполняется через sendfile.
+ * Помимо пропускной способности (файлов в секунду) выводится счетчик {@code cpuNanos}: процессорное время
+ * отправляющего потока, откуда получается время процессора на гигабайт. Запуск: {@code main} этого класса
+ * из тестового classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StaticFileTransferBenchmark {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    @Param({"src/main/resources/static/img/bg4.jpg", "src/main/resources/static/img/bg6.jpg"})
+    private String file;
+    private Path path;
+    private long length;
+    private ServerSocketChannel server;
+    private SocketChannel client;
+    private Thread drainer;
+
+    @Setup(Level.Trial)
+    public void connect() throws IOException {
+        path = Paths.get(file);
+        length = Files.size(path);
+        server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        client = SocketChannel.open(server.getLocalAddress());
+        SocketChannel accepted = server.accept();
+        drainer = new Thread(() -> {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+            try (accepted) {
+                while (accepted.read(buffer) >= 0) {
+                    buffer.clear();
+                }
+            } catch (IOException ignored) {
+                // сокет закрыт в конце прогона
+            }
+        }, "drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException, InterruptedException {
+        client.close();
+        server.close();
+        drainer.join(1000);
+    }
+
+    @Benchmark
+    public long streamCopy(CpuCounters cpu) throws IOException {
+        long started = THREADS.getCurrentThreadCpuTime();
+        OutputStream out = Channels.newOutputStream(client);
+        long copied;
+        try (InputStream in = Files.newInputStream(path)) {
+            copied = in.transferTo(out);
+        }
+        cpu.record(started, copied);
+        return copied;
+    }
+
+    @Benchmark
+    public long transferTo(CpuCounters cpu) throws IOException {
+        long started = THREADS.getCurrentThreadCpuTime();
+        long copied = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (copied < length) {
+                copied += channel.transferTo(copied, length - copied, client);
+            }
+        }
+        cpu.record(started, copied);
+        return copied;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StaticFileTransferBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Суммарное процессорное время отправки и число отправленных байтов за итерацию.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class CpuCounters {
+        public long cpuNanos;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            cpuNanos = 0;
+            bytes = 0;
+        }
+
+        void record(long started, long copied) {
+            cpuNanos += THREADS.getCurrentThreadCpuTime() - started;
+            bytes += copied;
+        }
+    }
+}
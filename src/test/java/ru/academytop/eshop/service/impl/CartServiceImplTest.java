@@ -1,10 +1,10 @@
-package by.petrovich.eshop.service.impl;
+package ru.academytop.eshop.service.impl;
 
-import by.petrovich.eshop.EShopApplication;
-import by.petrovich.eshop.dto.ProductDto;
-import by.petrovich.eshop.entity.Cart;
-import by.petrovich.eshop.entity.Product;
-import by.petrovich.eshop.service.CartService;
+import ru.academytop.eshop.EShopApplication;
+import ru.academytop.eshop.dto.ProductDto;
+import ru.academytop.eshop.entity.Cart;
+import ru.academytop.eshop.entity.Product;
+import ru.academytop.eshop.service.CartService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;